@@ -0,0 +1,42 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.dynamodbjpa.repo.DDbReadRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Logs, once all singletons are created, which DynamoDB operation serves each method of every repository bean,
+ * grouped by operation. Derived queries created while the beans were initialized are included, the ones served
+ * by a Scan were already logged as a warning when they were parsed.
+ */
+@Slf4j
+final class DDbAccessPathReport implements SmartInitializingSingleton {
+    private final ObjectProvider<DDbReadRepository<?, ?, ?>> repositories;
+
+    DDbAccessPathReport(ObjectProvider<DDbReadRepository<?, ?, ?>> repositories) {
+        this.repositories = repositories;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        repositories.orderedStream().forEach(this::report);
+    }
+
+    private void report(DDbReadRepository<?, ?, ?> repository) {
+        List<DDbAccessPath> accessPaths = repository.accessPaths();
+        Map<String, String> methodsByOperation = accessPaths.stream()
+                .collect(Collectors.groupingBy(DDbAccessPath::operation, LinkedHashMap::new,
+                        Collectors.mapping(DDbAccessPath::method, Collectors.joining(", "))));
+        String report = methodsByOperation.entrySet().stream()
+                .map(operation -> "\n    " + operation.getKey() + ": " + operation.getValue())
+                .collect(Collectors.joining());
+        log.info("Access paths of {}:{}", repository.getClass().getSimpleName(), report);
+    }
+}
@@ -1,15 +1,30 @@
 package io.pbhuyan.dynamodbjpa.config;
 
+import io.pbhuyan.dynamodbjpa.repo.DDbReadRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.util.StringUtils;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.retries.api.BackoffStrategy;
+import software.amazon.awssdk.retries.api.RetryStrategy;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
+import java.time.Duration;
+
 @Slf4j
 @AutoConfiguration
 @RequiredArgsConstructor
@@ -17,21 +32,141 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 public class DDbAutoConfiguration {
     private final DDbConfigurationProperty dDbConfigurationProperty;
 
+    /**
+     * The blocking low level client behind the repositories, also injected into them for the calls the enhanced
+     * client does not offer. ExecutionInterceptor beans of the application, such as the metrics interceptor, are
+     * added to it and to the async client.
+     */
     @Bean
-    DynamoDbEnhancedClient dynamoDbEnhancedClient() {
-        log.info("Initializing DynamoDBEnhancedClient");
-        String awsRegion = dDbConfigurationProperty.getRegion();
-        DDbConfigurationProperty.DynamoDB dynamodb = dDbConfigurationProperty.getDynamodb();
-        String dynamoDbRegion = null!=dynamodb?dynamodb.getRegion():"";
-        String finalRegion = StringUtils.hasText(dynamoDbRegion)?dynamoDbRegion:awsRegion;
+    DynamoDbClient dynamoDbClient(ObjectProvider<ExecutionInterceptor> executionInterceptors) {
+        log.info("Initializing DynamoDBClient");
+        String finalRegion = getRegion();
         log.info("DynamoDBClient is connected to region: {}", finalRegion);
+        DDbConfigurationProperty.Http http = getHttp();
+        ClientOverrideConfiguration.Builder overrideConfiguration = overrideConfiguration(http, executionInterceptors);
+        DDbRateLimitInterceptor rateLimitInterceptor = DDbRateLimitInterceptor.of(getDynamoDB().getTables());
+        if (null != rateLimitInterceptor) {
+            overrideConfiguration.addExecutionInterceptor(rateLimitInterceptor);
+        }
+        addGuard(overrideConfiguration);
         DynamoDbClient dynamoDbClient = DynamoDbClient.builder()
                 .region(Region.of(finalRegion))
+                .httpClientBuilder(DDbHttpClientFactory.httpClientBuilder(http))
+                .overrideConfiguration(overrideConfiguration.build())
                 .build();
+        DDbHttpClientFactory.prewarm(dynamoDbClient, http.getPrewarmConnections());
+        return dynamoDbClient;
+    }
+
+    @Bean
+    DynamoDbEnhancedClient dynamoDbEnhancedClient(DynamoDbClient dynamoDbClient) {
+        log.info("Initializing DynamoDBEnhancedClient");
         return DynamoDbEnhancedClient.builder()
                 .dynamoDbClient(dynamoDbClient)
                 .build();
     }
+
+    /**
+     * Non-blocking client used by DDbAsyncReadRepository and DDbAsyncCrudRepository. Lazy so the Netty event loop
+     * is only started when an async repository is actually used.
+     */
+    @Bean
+    @Lazy
+    DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(ObjectProvider<ExecutionInterceptor> executionInterceptors) {
+        log.info("Initializing DynamoDBEnhancedAsyncClient");
+        String finalRegion = getRegion();
+        log.info("DynamoDBAsyncClient is connected to region: {}", finalRegion);
+        DDbConfigurationProperty.Http http = getHttp();
+        ClientOverrideConfiguration.Builder overrideConfiguration = overrideConfiguration(http, executionInterceptors);
+        addGuard(overrideConfiguration);
+        DynamoDbAsyncClient dynamoDbAsyncClient = DynamoDbAsyncClient.builder()
+                .region(Region.of(finalRegion))
+                .httpClientBuilder(DDbHttpClientFactory.asyncHttpClientBuilder(http))
+                .overrideConfiguration(overrideConfiguration.build())
+                .build();
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .build();
+    }
+
+    /**
+     * Logs the method of every repository bean with the DynamoDB operation serving it, see
+     * aws.dynamodb.guard.access-path-report.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aws.dynamodb.guard", name = "access-path-report", havingValue = "true")
+    DDbAccessPathReport dDbAccessPathReport(ObjectProvider<DDbReadRepository<?, ?, ?>> repositories) {
+        return new DDbAccessPathReport(repositories);
+    }
+
+    /**
+     * Added last so the guard measures the time spent waiting for the rate limit as well.
+     */
+    private void addGuard(ClientOverrideConfiguration.Builder overrideConfiguration) {
+        DDbGuardInterceptor guardInterceptor = DDbGuardInterceptor.of(getDynamoDB().getGuard());
+        if (null != guardInterceptor) {
+            overrideConfiguration.addExecutionInterceptor(guardInterceptor);
+        }
+    }
+
+    private ClientOverrideConfiguration.Builder overrideConfiguration(DDbConfigurationProperty.Http http,
+                                                                     ObjectProvider<ExecutionInterceptor> executionInterceptors) {
+        ClientOverrideConfiguration.Builder builder = DDbHttpClientFactory.overrideConfiguration(http);
+        executionInterceptors.orderedStream().forEach(builder::addExecutionInterceptor);
+        DDbConfigurationProperty.Retry retry = getDynamoDB().getRetry();
+        RetryMode configuredMode = retryMode(retry);
+        if (null == retry.getMaxAttempts() && null == retry.getBaseDelay() && null == retry.getThrottlingBaseDelay()) {
+            if (null != configuredMode) {
+                log.info("DynamoDB clients use the {} retry mode", configuredMode);
+                builder.retryStrategy(configuredMode);
+            }
+            return builder;
+        }
+        RetryMode mode = null != configuredMode ? configuredMode : RetryMode.defaultRetryMode();
+        log.info("DynamoDB clients use the {} retry mode with {}", mode, retry);
+        RetryStrategy.Builder<?, ?> strategy = AwsRetryStrategy.forRetryMode(mode).toBuilder();
+        Duration maxBackoff = retry.getMaxBackoff();
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(retry::getMaxAttempts).to(strategy::maxAttempts);
+        map.from(retry::getBaseDelay)
+                .as(baseDelay -> BackoffStrategy.exponentialDelay(baseDelay, maxBackoff))
+                .to(strategy::backoffStrategy);
+        map.from(retry::getThrottlingBaseDelay)
+                .as(baseDelay -> BackoffStrategy.exponentialDelay(baseDelay, maxBackoff))
+                .to(strategy::throttlingBackoffStrategy);
+        builder.retryStrategy(strategy.build());
+        return builder;
+    }
+
+    /**
+     * @return the configured retry mode, ADAPTIVE_V2 if none is set but a table rate limit is, so the whole client
+     * backs off while a limited table is throttled, or null for the SDK default.
+     */
+    private RetryMode retryMode(DDbConfigurationProperty.Retry retry) {
+        if (null != retry.getMode()) {
+            return retry.getMode();
+        }
+        boolean rateLimited = getDynamoDB().getTables().values().stream()
+                .anyMatch(table -> table.getReadCapacityUnits() > 0 || table.getWriteCapacityUnits() > 0);
+        return rateLimited ? RetryMode.ADAPTIVE_V2 : null;
+    }
+
+    private String getRegion() {
+        String awsRegion = dDbConfigurationProperty.getRegion();
+        DDbConfigurationProperty.DynamoDB dynamodb = dDbConfigurationProperty.getDynamodb();
+        String dynamoDbRegion = null!=dynamodb?dynamodb.getRegion():"";
+        return StringUtils.hasText(dynamoDbRegion)?dynamoDbRegion:awsRegion;
+    }
+
+    private DDbConfigurationProperty.DynamoDB getDynamoDB() {
+        DDbConfigurationProperty.DynamoDB dynamodb = dDbConfigurationProperty.getDynamodb();
+        return null != dynamodb ? dynamodb : new DDbConfigurationProperty.DynamoDB();
+    }
+
+    private DDbConfigurationProperty.Http getHttp() {
+        DDbConfigurationProperty.DynamoDB dynamodb = dDbConfigurationProperty.getDynamodb();
+        return null != dynamodb && null != dynamodb.getHttp() ? dynamodb.getHttp() : new DDbConfigurationProperty.Http();
+    }
 }
 
 
@@ -5,12 +5,17 @@ import io.pbhuyan.dynamodbjpa.exception.DDbConfigException;
 import lombok.Data;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import software.amazon.awssdk.core.retry.RetryMode;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Data
 @ConfigurationProperties(prefix = "aws")
 public class DDbConfigurationProperty implements InitializingBean {
     private String region;
-    private DynamoDB dynamodb;
+    private DynamoDB dynamodb = new DynamoDB();
 
     @Override
     public void afterPropertiesSet() {
@@ -23,5 +28,367 @@ public class DDbConfigurationProperty implements InitializingBean {
     @Data
     public static class DynamoDB {
         private String region;
+        private Scan scan = new Scan();
+        private Batch batch = new Batch();
+        private Http http = new Http();
+        private Cache cache = new Cache();
+        private Read read = new Read();
+        private WriteBehind writeBehind = new WriteBehind();
+        private DirtyTracking dirtyTracking = new DirtyTracking();
+        private OptimisticLock optimisticLock = new OptimisticLock();
+        private Transaction transaction = new Transaction();
+        private Retry retry = new Retry();
+        private Metrics metrics = new Metrics();
+        private Guard guard = new Guard();
+        /**
+         * Client side rate limits by DynamoDB table name.
+         */
+        private Map<String, Table> tables = new LinkedHashMap<>();
+    }
+
+    /**
+     * Settings applied to repository methods served by a full table Scan.
+     */
+    @Data
+    public static class Scan {
+        /**
+         * What to do when a repository method falls back to a full table Scan.
+         */
+        private ScanPolicy policy = ScanPolicy.ALLOW;
+        /**
+         * Number of segments findAll and delete() scan in parallel. 1 runs a single sequential scan.
+         */
+        private int parallelism = 1;
+        /**
+         * Read capacity units per second a full table scan may consume across all its segments. 0 means unlimited.
+         */
+        private double readCapacityBudget = 0;
+    }
+
+    /**
+     * Settings applied to BatchWriteItem and BatchGetItem calls.
+     */
+    @Data
+    public static class Batch {
+        /**
+         * How many times unprocessed items are resubmitted before they are reported back as failed.
+         */
+        private int maxRetries = 8;
+        /**
+         * Base delay of the exponential backoff between retries.
+         */
+        private Duration baseDelay = Duration.ofMillis(50);
+        /**
+         * Upper bound of the backoff delay.
+         */
+        private Duration maxDelay = Duration.ofSeconds(5);
+        /**
+         * Number of BatchGetItem chunks fetched in parallel by a single batch lookup, also the number of
+         * BatchWriteItem chunks an async batch write keeps in flight.
+         */
+        private int concurrency = 1;
+    }
+
+    /**
+     * Settings applied to single item reads.
+     */
+    @Data
+    public static class Read {
+        /**
+         * Concurrent findBy calls for the same key share one GetItem call instead of each issuing
+         * their own.
+         */
+        private boolean coalesce = false;
+        /**
+         * How long findBy holds a lookup to fetch it together with lookups of other threads in one
+         * BatchGetItem. 0 sends every lookup on its own.
+         */
+        private Duration batchWindow = Duration.ZERO;
+        /**
+         * Number of keys after which a batch of lookups is sent without waiting for the window, at most 100.
+         */
+        private int batchSize = 100;
+    }
+
+    /**
+     * Defaults of repositories annotated with DDbWriteBehind.
+     */
+    @Data
+    public static class WriteBehind {
+        /**
+         * Longest time a saved entity stays buffered before it is written.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+        /**
+         * Number of buffered entities that triggers a flush.
+         */
+        private int flushSize = 100;
+        /**
+         * Number of buffered entities at which save blocks until a flush has made room.
+         */
+        private int capacity = 10_000;
+    }
+
+    /**
+     * Retries of readModifyWrite after a version conflict.
+     */
+    @Data
+    public static class OptimisticLock {
+        /**
+         * How many times the read, modify and write cycle is repeated before the conflict is thrown.
+         */
+        private int maxRetries = 5;
+        /**
+         * Base delay of the exponential backoff between attempts.
+         */
+        private Duration baseDelay = Duration.ofMillis(20);
+        /**
+         * Upper bound of the backoff delay.
+         */
+        private Duration maxDelay = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Retries of DDbTransaction commits cancelled by a conflicting transaction or throttling.
+     */
+    @Data
+    public static class Transaction {
+        /**
+         * How many times a cancelled commit is resent with the same client request token.
+         */
+        private int maxRetries = 3;
+        /**
+         * Base delay of the exponential backoff between attempts.
+         */
+        private Duration baseDelay = Duration.ofMillis(50);
+        /**
+         * Upper bound of the backoff delay.
+         */
+        private Duration maxDelay = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Retry strategy of the DynamoDB clients. Unset values keep the SDK defaults.
+     */
+    @Data
+    public static class Retry {
+        /**
+         * SDK retry mode. ADAPTIVE_V2 additionally slows the client down while DynamoDB throttles it. Defaults to
+         * ADAPTIVE_V2 when a table rate limit is configured under aws.dynamodb.tables, to the SDK default otherwise.
+         */
+        private RetryMode mode;
+        /**
+         * Maximum number of attempts of a request, the first one included.
+         */
+        private Integer maxAttempts;
+        /**
+         * Base delay of the exponential backoff after a failed attempt.
+         */
+        private Duration baseDelay;
+        /**
+         * Base delay of the exponential backoff after a throttled attempt.
+         */
+        private Duration throttlingBaseDelay;
+        /**
+         * Upper bound of the backoff delays set by baseDelay and throttlingBaseDelay.
+         */
+        private Duration maxBackoff = Duration.ofSeconds(20);
+    }
+
+    /**
+     * Micrometer metrics of the requests sent by the DynamoDB clients, recorded when the application has a
+     * MeterRegistry.
+     */
+    @Data
+    public static class Metrics {
+        /**
+         * Records dynamodb.* meters and exposes the dynamodb actuator endpoint.
+         */
+        private boolean enabled = true;
+    }
+
+    /**
+     * Detector of expensive requests. Every request of the DynamoDB clients, each page of a Query or Scan on its
+     * own, is checked against the thresholds below and logged when it exceeds one of them.
+     */
+    @Data
+    public static class Guard {
+        /**
+         * Checks the requests against the thresholds.
+         */
+        private boolean enabled = false;
+        /**
+         * Duration of a request, retries included, above which it is reported. 0 disables the check.
+         */
+        private Duration slowThreshold = Duration.ofMillis(500);
+        /**
+         * Items a Query or Scan page may evaluate before filter expressions are applied. 0 disables the check.
+         */
+        private int maxScannedItems = 1000;
+        /**
+         * Capacity units a single request may consume. 0 disables the check.
+         */
+        private double maxCapacityUnits = 100;
+        /**
+         * Fails reads exceeding a threshold with DDbRepoException instead of only logging them. Writes are always
+         * only logged, they have been applied when the thresholds are checked.
+         */
+        private boolean strict = false;
+        /**
+         * Logs at startup which DynamoDB operation serves each method of every repository bean.
+         */
+        private boolean accessPathReport = false;
+    }
+
+    /**
+     * Client side rate limit of the requests the blocking client sends to one table, paced by the capacity units
+     * DynamoDB reports as consumed. The limit is lowered when requests are throttled and grows back afterwards.
+     */
+    @Data
+    public static class Table {
+        /**
+         * Read capacity units per second reads of the table may consume. 0 means unlimited.
+         */
+        private double readCapacityUnits = 0;
+        /**
+         * Write capacity units per second writes to the table may consume. 0 means unlimited.
+         */
+        private double writeCapacityUnits = 0;
+        /**
+         * Factor the current limit is multiplied with after a throttled or retried request.
+         */
+        private double decreaseFactor = 0.5;
+        /**
+         * Share of the configured limit added back per second.
+         */
+        private double increaseRatio = 0.1;
+        /**
+         * Lowest share of the configured limit the rate is lowered to.
+         */
+        private double minRatio = 0.1;
+    }
+
+    /**
+     * Snapshots of loaded items used by saveChanges to send only the modified attributes.
+     */
+    @Data
+    public static class DirtyTracking {
+        /**
+         * Keeps a snapshot of every item loaded by findBy or written by save.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of snapshots per repository.
+         */
+        private long maxSize = 10_000;
+        /**
+         * How long a snapshot is kept, saveChanges of an older entity writes the whole item.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    /**
+     * In-process near cache in front of findBy and existsBy. Repositories annotated with DDbCache use it even when
+     * it is not enabled here.
+     */
+    @Data
+    public static class Cache {
+        /**
+         * Caches findBy and existsBy of every repository.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of entries per repository, least valuable entries are evicted first.
+         */
+        private long maxSize = 10_000;
+        /**
+         * How long an entry is served after it was loaded.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        /**
+         * Caches lookups that found no item, so repeated lookups of missing keys do not reach DynamoDB.
+         */
+        private boolean cacheMissing = true;
+    }
+
+    /**
+     * HTTP transport of the DynamoDB clients. Unset values keep the SDK defaults.
+     */
+    @Data
+    public static class Http {
+        /**
+         * HTTP client implementation of the blocking client. The async client always uses Netty NIO.
+         */
+        private HttpClientType client = HttpClientType.APACHE;
+        /**
+         * Maximum number of open connections, also the max concurrency of the CRT and Netty clients.
+         */
+        private Integer maxConnections;
+        /**
+         * Time allowed to establish a connection.
+         */
+        private Duration connectionTimeout;
+        /**
+         * Time allowed between two packets of a response.
+         */
+        private Duration socketTimeout;
+        /**
+         * Maximum lifetime of a pooled connection.
+         */
+        private Duration connectionTtl;
+        /**
+         * Idle time after which a pooled connection is closed.
+         */
+        private Duration connectionMaxIdleTime;
+        /**
+         * Time a request waits for a connection from the pool.
+         */
+        private Duration connectionAcquisitionTimeout;
+        /**
+         * Enables TCP keep-alive on pooled connections (Apache and Netty).
+         */
+        private Boolean tcpKeepAlive;
+        /**
+         * Time allowed for a complete API call including all retries.
+         */
+        private Duration apiCallTimeout;
+        /**
+         * Time allowed for a single attempt of an API call.
+         */
+        private Duration apiCallAttemptTimeout;
+        /**
+         * Number of connections opened at startup so the first requests after a deploy don't pay TLS handshakes.
+         */
+        private int prewarmConnections = 0;
+    }
+
+    public enum HttpClientType {
+        /**
+         * software.amazon.awssdk:apache-client, the SDK default.
+         */
+        APACHE,
+        /**
+         * software.amazon.awssdk:url-connection-client, needs to be added to the application.
+         */
+        URL_CONNECTION,
+        /**
+         * software.amazon.awssdk:aws-crt-client, needs to be added to the application.
+         */
+        CRT
+    }
+
+    public enum ScanPolicy {
+        /**
+         * Scans run silently.
+         */
+        ALLOW,
+        /**
+         * Scans run but a warning is logged on every call.
+         */
+        WARN,
+        /**
+         * Scans are rejected with DDbRepoException.
+         */
+        FAIL
     }
 }
@@ -0,0 +1,81 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.pbhuyan.dynamodbjpa.model.DDbTableMetrics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint /actuator/dynamodb summarizing the requests of every table from the meters recorded by
+ * {@link DDbMetricsInterceptor}. /actuator/dynamodb/{table} returns a single table.
+ */
+@Endpoint(id = "dynamodb")
+public class DDbEndpoint {
+    private final MeterRegistry meterRegistry;
+    private final Instant startedAt;
+
+    DDbEndpoint(MeterRegistry meterRegistry, Instant startedAt) {
+        this.meterRegistry = meterRegistry;
+        this.startedAt = startedAt;
+    }
+
+    @ReadOperation
+    public Map<String, DDbTableMetrics> tables() {
+        Map<String, DDbTableMetrics> tables = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(DDbMetricsInterceptor.REQUESTS).timers()) {
+            String table = timer.getId().getTag("table");
+            tables.computeIfAbsent(table, this::table);
+        }
+        return tables;
+    }
+
+    @ReadOperation
+    public DDbTableMetrics table(@Selector String table) {
+        Collection<Timer> timers = meterRegistry.find(DDbMetricsInterceptor.REQUESTS).tag("table", table).timers();
+        if (timers.isEmpty()) {
+            return null;
+        }
+        String entity = null;
+        long requests = 0;
+        long failedRequests = 0;
+        long throttledRequests = 0;
+        double totalMillis = 0;
+        double maxMillis = 0;
+        for (Timer timer : timers) {
+            entity = timer.getId().getTag("entity");
+            requests += timer.count();
+            String outcome = timer.getId().getTag("outcome");
+            if (!"success".equals(outcome)) {
+                failedRequests += timer.count();
+            }
+            if ("throttled".equals(outcome)) {
+                throttledRequests += timer.count();
+            }
+            totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+            maxMillis = Math.max(maxMillis, timer.max(TimeUnit.MILLISECONDS));
+        }
+        double readUnits = total(meterRegistry.find(DDbMetricsInterceptor.CONSUMED_CAPACITY)
+                .tags("table", table, "capacity", "read").summaries());
+        double writeUnits = total(meterRegistry.find(DDbMetricsInterceptor.CONSUMED_CAPACITY)
+                .tags("table", table, "capacity", "write").summaries());
+        double items = total(meterRegistry.find(DDbMetricsInterceptor.ITEMS).tag("table", table).summaries());
+        double seconds = Math.max(1, Duration.between(startedAt, Instant.now()).toSeconds());
+        return new DDbTableMetrics(table, entity, requests, failedRequests, throttledRequests,
+                requests == 0 ? 0 : totalMillis / requests, maxMillis, readUnits, writeUnits, items,
+                requests / seconds, readUnits / seconds, writeUnits / seconds);
+    }
+
+    private static double total(Collection<DistributionSummary> summaries) {
+        return summaries.stream().mapToDouble(DistributionSummary::totalAmount).sum();
+    }
+}
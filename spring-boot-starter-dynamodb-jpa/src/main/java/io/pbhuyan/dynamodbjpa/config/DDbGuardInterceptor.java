@@ -0,0 +1,170 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.support.DDbCallSite;
+import io.pbhuyan.dynamodbjpa.support.DDbTableRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Checks every request of the DynamoDB clients against the thresholds of aws.dynamodb.guard.*: its duration
+ * including retries, the items a Query or Scan page evaluated and the capacity units it consumed. A request
+ * exceeding one of them is logged as a warning with the repository method it was sent from, its expressions and
+ * the ratio of scanned to returned items. The fields are attached as key value pairs of the log event as well,
+ * for structured log encoders. In strict mode such reads fail with DDbRepoException.
+ * <p>
+ * The repository method is only known for requests of the blocking client, requests of the async client are
+ * completed on another thread and report the DynamoDB operation instead.
+ */
+@Slf4j
+final class DDbGuardInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> START = new ExecutionAttribute<>("DDbGuardStart");
+    private static final List<String> EXPRESSIONS = List.of("KeyConditionExpression", "FilterExpression",
+            "ConditionExpression", "UpdateExpression", "ProjectionExpression");
+
+    private final long slowThresholdNanos;
+    private final int maxScannedItems;
+    private final double maxCapacityUnits;
+    private final boolean strict;
+
+    private DDbGuardInterceptor(DDbConfigurationProperty.Guard guard) {
+        Duration slowThreshold = guard.getSlowThreshold();
+        this.slowThresholdNanos = null == slowThreshold ? 0 : slowThreshold.toNanos();
+        this.maxScannedItems = guard.getMaxScannedItems();
+        this.maxCapacityUnits = guard.getMaxCapacityUnits();
+        this.strict = guard.isStrict();
+    }
+
+    /**
+     * @return the interceptor of the configured thresholds, or null if the guard is disabled.
+     */
+    static DDbGuardInterceptor of(DDbConfigurationProperty.Guard guard) {
+        if (null == guard || !guard.isEnabled()) {
+            return null;
+        }
+        log.info("DynamoDB guard reports requests slower than {}, scanning more than {} items or consuming more " +
+                        "than {} capacity units{}", guard.getSlowThreshold(), guard.getMaxScannedItems(),
+                guard.getMaxCapacityUnits(), guard.isStrict() ? ", reads exceeding them fail" : "");
+        return new DDbGuardInterceptor(guard);
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START, System.nanoTime());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        return maxCapacityUnits > 0 ? DDbRequests.returnConsumedCapacity(context.request()) : context.request();
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Long start = executionAttributes.getAttribute(START);
+        long elapsedNanos = null == start ? 0 : System.nanoTime() - start;
+        SdkResponse response = context.response();
+        Optional<Integer> count = response.getValueForField("Count", Integer.class);
+        Optional<Integer> scannedCount = response.getValueForField("ScannedCount", Integer.class);
+        double capacityUnits = DDbRequests.consumedCapacities(response).stream()
+                .map(ConsumedCapacity::capacityUnits)
+                .filter(units -> null != units)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+
+        List<String> exceeded = new ArrayList<>();
+        if (slowThresholdNanos > 0 && elapsedNanos > slowThresholdNanos) {
+            exceeded.add("latency");
+        }
+        if (maxScannedItems > 0 && scannedCount.orElse(0) > maxScannedItems) {
+            exceeded.add("scanned items");
+        }
+        if (maxCapacityUnits > 0 && capacityUnits > maxCapacityUnits) {
+            exceeded.add("capacity");
+        }
+        if (exceeded.isEmpty()) {
+            return;
+        }
+
+        SdkRequest request = context.request();
+        String api = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        Set<String> tableNames = new TreeSet<>(DDbRequests.tableNames(request));
+        Optional<DDbCallSite> callSite = DDbCallSite.current();
+        String repository = callSite.map(site -> site.repository().getSimpleName())
+                .or(() -> tableNames.stream()
+                        .map(tableName -> DDbTableRegistry.get(tableName).map(DDbTableRegistry.Entry::repository))
+                        .flatMap(Optional::stream)
+                        .findFirst())
+                .orElse("unknown");
+        String method = callSite.map(DDbCallSite::method).orElse(api);
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("exceeded", String.join(",", exceeded));
+        fields.put("repository", repository);
+        fields.put("method", method);
+        fields.put("api", api);
+        fields.put("table", String.join(",", tableNames));
+        request.getValueForField("IndexName", String.class).ifPresent(indexName -> fields.put("index", indexName));
+        fields.put("expression", expression(request));
+        request.getValueForField("ExpressionAttributeNames", Map.class)
+                .filter(names -> !names.isEmpty())
+                .ifPresent(names -> fields.put("names", names));
+        fields.put("latencyMillis", Duration.ofNanos(elapsedNanos).toMillis());
+        count.ifPresent(returned -> fields.put("returnedItems", returned));
+        scannedCount.ifPresent(scanned -> fields.put("scannedItems", scanned));
+        scannedCount.ifPresent(scanned -> fields.put("scannedToReturned",
+                String.format(Locale.ROOT, "%.1f", scanned / (double) Math.max(1, count.orElse(0)))));
+        fields.put("capacityUnits", capacityUnits);
+
+        LoggingEventBuilder event = log.atWarn();
+        fields.forEach(event::addKeyValue);
+        event.log("DynamoDB request exceeded the guard thresholds: {}", fields.entrySet().stream()
+                .map(field -> field.getKey() + "=" + quote(field.getValue()))
+                .collect(Collectors.joining(" ")));
+
+        if (strict && DDbRequests.isRead(request)) {
+            throw new DDbRepoException("%s.%s exceeded the DynamoDB guard thresholds for %s on table %s.".formatted(
+                    repository, method, String.join(" and ", exceeded), String.join(",", tableNames)),
+                    """
+                            Serve the method by GetItem or a Query on the partition key of the table or of an index, or narrow it with a limit or smaller pages.
+
+                            Raise the thresholds under aws.dynamodb.guard or set aws.dynamodb.guard.strict to false to only log such requests.
+                            """);
+        }
+    }
+
+    /**
+     * Expressions of the request with their placeholders, the attribute values are never logged.
+     */
+    private static String expression(SdkRequest request) {
+        String expression = EXPRESSIONS.stream()
+                .flatMap(field -> request.getValueForField(field, String.class)
+                        .map(value -> field.replace("Expression", "") + "(" + value + ")")
+                        .stream())
+                .collect(Collectors.joining(" "));
+        return expression.isEmpty() ? "none" : expression;
+    }
+
+    private static String quote(Object value) {
+        String text = String.valueOf(value);
+        return text.contains(" ") ? "\"" + text.replace("\"", "\\\"") + "\"" : text;
+    }
+}
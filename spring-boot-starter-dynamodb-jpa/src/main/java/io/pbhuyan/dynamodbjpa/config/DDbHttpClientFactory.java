@@ -0,0 +1,152 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbConfigException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.util.ClassUtils;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the HTTP clients and client overrides of the DynamoDB clients from aws.dynamodb.http.*. The URL connection
+ * and CRT clients are optional dependencies, they are only touched from their own nested classes so this class
+ * loads fine without them.
+ */
+@Slf4j
+final class DDbHttpClientFactory {
+    private static final String URL_CONNECTION_CLIENT = "software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient";
+    private static final String CRT_CLIENT = "software.amazon.awssdk.http.crt.AwsCrtHttpClient";
+
+    private DDbHttpClientFactory() {
+    }
+
+    static SdkHttpClient.Builder<?> httpClientBuilder(DDbConfigurationProperty.Http http) {
+        log.info("DynamoDBClient uses the {} HTTP client", http.getClient());
+        return switch (http.getClient()) {
+            case APACHE -> Apache.builder(http);
+            case URL_CONNECTION -> {
+                requireClass(URL_CONNECTION_CLIENT, "url-connection-client");
+                yield UrlConnection.builder(http);
+            }
+            case CRT -> {
+                requireClass(CRT_CLIENT, "aws-crt-client");
+                yield Crt.builder(http);
+            }
+        };
+    }
+
+    static NettyNioAsyncHttpClient.Builder asyncHttpClientBuilder(DDbConfigurationProperty.Http http) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder();
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(http::getMaxConnections).to(builder::maxConcurrency);
+        map.from(http::getConnectionTimeout).to(builder::connectionTimeout);
+        map.from(http::getSocketTimeout).to(builder::readTimeout);
+        map.from(http::getConnectionTtl).to(builder::connectionTimeToLive);
+        map.from(http::getConnectionMaxIdleTime).to(builder::connectionMaxIdleTime);
+        map.from(http::getConnectionAcquisitionTimeout).to(builder::connectionAcquisitionTimeout);
+        map.from(http::getTcpKeepAlive).to(builder::tcpKeepAlive);
+        return builder;
+    }
+
+    static ClientOverrideConfiguration.Builder overrideConfiguration(DDbConfigurationProperty.Http http) {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder();
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(http::getApiCallTimeout).to(builder::apiCallTimeout);
+        map.from(http::getApiCallAttemptTimeout).to(builder::apiCallAttemptTimeout);
+        return builder;
+    }
+
+    /**
+     * Opens the requested number of pooled connections by issuing concurrent DescribeEndpoints calls, which need
+     * no table level permission. Failures are logged and never stop the application from starting.
+     */
+    static void prewarm(DynamoDbClient dynamoDbClient, int connections) {
+        if (connections <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Future<?>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                calls.add(executor.submit(() -> dynamoDbClient.describeEndpoints()));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+            log.info("Pre-warmed {} DynamoDB connections in {} ms", connections,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("DynamoDB connection pre-warm failed: {}", e.getMessage());
+        }
+    }
+
+    private static void requireClass(String className, String artifactId) {
+        if (!ClassUtils.isPresent(className, DDbHttpClientFactory.class.getClassLoader())) {
+            throw new DDbConfigException("HTTP client %s is not on the classpath.".formatted(className),
+                    """
+                            Add the following dependency to your project:
+
+                                <dependency>
+                                    <groupId>software.amazon.awssdk</groupId>
+                                    <artifactId>%s</artifactId>
+                                </dependency>
+
+                            or remove aws.dynamodb.http.client to use the default Apache HTTP client.
+                            """.formatted(artifactId));
+        }
+    }
+
+    private static final class Apache {
+        static SdkHttpClient.Builder<?> builder(DDbConfigurationProperty.Http http) {
+            ApacheHttpClient.Builder builder = ApacheHttpClient.builder();
+            PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            map.from(http::getMaxConnections).to(builder::maxConnections);
+            map.from(http::getConnectionTimeout).to(builder::connectionTimeout);
+            map.from(http::getSocketTimeout).to(builder::socketTimeout);
+            map.from(http::getConnectionTtl).to(builder::connectionTimeToLive);
+            map.from(http::getConnectionMaxIdleTime).to(builder::connectionMaxIdleTime);
+            map.from(http::getConnectionAcquisitionTimeout).to(builder::connectionAcquisitionTimeout);
+            map.from(http::getTcpKeepAlive).to(builder::tcpKeepAlive);
+            return builder;
+        }
+    }
+
+    /**
+     * The URL connection client has no connection pool settings, only the timeouts are applied.
+     */
+    private static final class UrlConnection {
+        static SdkHttpClient.Builder<?> builder(DDbConfigurationProperty.Http http) {
+            UrlConnectionHttpClient.Builder builder = UrlConnectionHttpClient.builder();
+            PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            map.from(http::getConnectionTimeout).to(builder::connectionTimeout);
+            map.from(http::getSocketTimeout).to(builder::socketTimeout);
+            return builder;
+        }
+    }
+
+    private static final class Crt {
+        static SdkHttpClient.Builder<?> builder(DDbConfigurationProperty.Http http) {
+            AwsCrtHttpClient.Builder builder = AwsCrtHttpClient.builder();
+            PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+            map.from(http::getMaxConnections).to(builder::maxConcurrency);
+            map.from(http::getConnectionTimeout).to(builder::connectionTimeout);
+            map.from(http::getConnectionMaxIdleTime).to(builder::connectionMaxIdleTime);
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records the requests of the DynamoDB clients and the write-behind buffers of the repositories in the application's
+ * MeterRegistry and exposes the dynamodb actuator endpoint. Only active when Micrometer, and for the endpoint Spring
+ * Boot Actuator, are on the classpath.
+ * Switched off with aws.dynamodb.metrics.enabled=false.
+ */
+@Slf4j
+@AutoConfiguration(before = DDbAutoConfiguration.class, afterName = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"})
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "aws.dynamodb.metrics", name = "enabled", matchIfMissing = true)
+public class DDbMetricsAutoConfiguration {
+
+    @Bean
+    DDbMetricsInterceptor dDbMetricsInterceptor(MeterRegistry meterRegistry) {
+        log.info("Recording DynamoDB request metrics");
+        return new DDbMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    DDbWriteBehindMeters dDbWriteBehindMeters(MeterRegistry meterRegistry,
+                                              ObjectProvider<DDbCrudRepository<?, ?, ?>> repositories) {
+        return new DDbWriteBehindMeters(meterRegistry, repositories);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    @ConditionalOnAvailableEndpoint(endpoint = DDbEndpoint.class)
+    static class EndpointConfiguration {
+
+        @Bean
+        DDbEndpoint dDbEndpoint(MeterRegistry meterRegistry, DDbMetricsInterceptor dDbMetricsInterceptor) {
+            return new DDbEndpoint(meterRegistry, dDbMetricsInterceptor.startedAt());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.pbhuyan.dynamodbjpa.support.DDbCallSite;
+import io.pbhuyan.dynamodbjpa.support.DDbTableRegistry;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records every request of the DynamoDB clients in Micrometer:
+ * <ul>
+ *     <li>dynamodb.requests, timer of the whole execution including retries</li>
+ *     <li>dynamodb.consumed.capacity, capacity units reported by DynamoDB, tagged capacity=read or write</li>
+ *     <li>dynamodb.items, items returned per request, one request per page of a Query or Scan</li>
+ *     <li>dynamodb.scanned.items, items evaluated per Query or Scan page before filter expressions</li>
+ *     <li>dynamodb.payload, bytes of request and response bodies, tagged direction=request or response</li>
+ * </ul>
+ * All meters are tagged with table, entity, operation (the repository method, or the DynamoDB operation when
+ * the request was not sent from a repository method on the calling thread) and api (the DynamoDB operation).
+ * The timer is tagged with the outcome as well.
+ */
+final class DDbMetricsInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<Long> START = new ExecutionAttribute<>("DDbMetricsStart");
+    private static final ExecutionAttribute<DDbCallSite> CALL_SITE = new ExecutionAttribute<>("DDbMetricsCallSite");
+    static final String REQUESTS = "dynamodb.requests";
+    static final String CONSUMED_CAPACITY = "dynamodb.consumed.capacity";
+    static final String ITEMS = "dynamodb.items";
+    static final String SCANNED_ITEMS = "dynamodb.scanned.items";
+    static final String PAYLOAD = "dynamodb.payload";
+
+    private final MeterRegistry meterRegistry;
+    private final Instant startedAt = Instant.now();
+
+    DDbMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return when this interceptor started recording, the base of per second rates.
+     */
+    Instant startedAt() {
+        return startedAt;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START, System.nanoTime());
+        DDbCallSite.current().ifPresent(callSite -> executionAttributes.putAttribute(CALL_SITE, callSite));
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        return DDbRequests.returnConsumedCapacity(context.request());
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Tags tags = tags(context.request(), executionAttributes);
+        record(tags.and("outcome", "success"), executionAttributes);
+        String capacity = DDbRequests.isRead(context.request()) ? "read" : "write";
+        for (ConsumedCapacity consumedCapacity : DDbRequests.consumedCapacities(context.response())) {
+            if (null != consumedCapacity.capacityUnits()) {
+                summary(CONSUMED_CAPACITY, "capacity units", tableTags(consumedCapacity.tableName(), tags,
+                        executionAttributes)
+                        .and("capacity", capacity))
+                        .record(consumedCapacity.capacityUnits());
+            }
+        }
+        Optional<Integer> count = context.response().getValueForField("Count", Integer.class);
+        if (count.isPresent()) {
+            summary(ITEMS, "items", tags).record(count.get());
+            context.response().getValueForField("ScannedCount", Integer.class)
+                    .ifPresent(scannedCount -> summary(SCANNED_ITEMS, "items", tags).record(scannedCount));
+        } else if (context.response().getValueForField("Item", Map.class).isPresent()) {
+            summary(ITEMS, "items", tags).record(1);
+        }
+        context.requestBody().flatMap(RequestBody::optionalContentLength)
+                .or(() -> context.asyncRequestBody().flatMap(AsyncRequestBody::contentLength))
+                .ifPresent(bytes -> summary(PAYLOAD, "bytes", tags.and("direction", "request")).record(bytes));
+        context.httpResponse().firstMatchingHeader("Content-Length")
+                .map(Long::parseLong)
+                .ifPresent(bytes -> summary(PAYLOAD, "bytes", tags.and("direction", "response")).record(bytes));
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        record(tags(context.request(), executionAttributes).and("outcome", outcome(context.exception())),
+                executionAttributes);
+    }
+
+    private void record(Tags tags, ExecutionAttributes executionAttributes) {
+        Long start = executionAttributes.getAttribute(START);
+        if (null != start) {
+            Timer.builder(REQUESTS)
+                    .description("DynamoDB requests sent by the repositories")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private DistributionSummary summary(String name, String baseUnit, Tags tags) {
+        return DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static Tags tags(SdkRequest request, ExecutionAttributes executionAttributes) {
+        String api = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        Optional<DDbCallSite> callSite = executionAttributes.getOptionalAttribute(CALL_SITE);
+        String operation = callSite.map(DDbCallSite::method).orElse(api);
+        Set<String> tableNames = new TreeSet<>(DDbRequests.tableNames(request));
+        return Tags.of(
+                "table", tableNames.isEmpty() ? "none" : String.join(",", tableNames),
+                "entity", tableNames.isEmpty() ? "none" : tableNames.stream()
+                        .map(tableName -> entity(tableName, callSite))
+                        .collect(Collectors.joining(",")),
+                "operation", operation,
+                "api", api);
+    }
+
+    /**
+     * Tags of a consumed capacity entry, batch and transaction responses report one per table.
+     */
+    private static Tags tableTags(String tableName, Tags requestTags, ExecutionAttributes executionAttributes) {
+        if (null == tableName) {
+            return requestTags;
+        }
+        return requestTags.and("table", tableName)
+                .and("entity", entity(tableName, executionAttributes.getOptionalAttribute(CALL_SITE)));
+    }
+
+    /**
+     * The entity of the repository the request was sent from, otherwise all entities mapped to the table, since
+     * a single table design maps several.
+     */
+    private static String entity(String tableName, Optional<DDbCallSite> callSite) {
+        return callSite.map(site -> site.entityOf(tableName))
+                .or(() -> DDbTableRegistry.get(tableName).map(DDbTableRegistry.Entry::entity))
+                .orElse("unknown");
+    }
+
+    static String outcome(Throwable exception) {
+        if (exception instanceof SdkServiceException e) {
+            if (e.isThrottlingException()) {
+                return "throttled";
+            }
+            if (e instanceof ConditionalCheckFailedException || e instanceof TransactionCanceledException) {
+                return "condition_failed";
+            }
+            return e.statusCode() >= 500 ? "server_error" : "client_error";
+        }
+        return "failure";
+    }
+}
@@ -0,0 +1,131 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.pbhuyan.dynamodbjpa.support.DDbAdaptiveRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies the per table rate limits of aws.dynamodb.tables.* to the requests of the blocking client. A request
+ * waits in beforeExecution until every limited table it touches has capacity left, asks DynamoDB to return its
+ * consumed capacity and is charged with it afterwards. A request that was throttled, or only succeeded after a
+ * retry, lowers the limit of its tables. Reads and writes are limited separately.
+ */
+@Slf4j
+final class DDbRateLimitInterceptor implements ExecutionInterceptor {
+    private static final ExecutionAttribute<AtomicInteger> ATTEMPTS = new ExecutionAttribute<>("DDbRateLimitAttempts");
+
+    private final Map<String, DDbAdaptiveRateLimiter> readLimiters = new HashMap<>();
+    private final Map<String, DDbAdaptiveRateLimiter> writeLimiters = new HashMap<>();
+
+    private DDbRateLimitInterceptor(Map<String, DDbConfigurationProperty.Table> tables) {
+        tables.forEach((tableName, table) -> {
+            limiter(table.getReadCapacityUnits(), table).ifPresent(limiter -> readLimiters.put(tableName, limiter));
+            limiter(table.getWriteCapacityUnits(), table).ifPresent(limiter -> writeLimiters.put(tableName, limiter));
+        });
+    }
+
+    /**
+     * @return the interceptor of the configured limits, or null if no table is limited.
+     */
+    static DDbRateLimitInterceptor of(Map<String, DDbConfigurationProperty.Table> tables) {
+        if (null == tables || tables.isEmpty()) {
+            return null;
+        }
+        DDbRateLimitInterceptor interceptor = new DDbRateLimitInterceptor(tables);
+        if (interceptor.readLimiters.isEmpty() && interceptor.writeLimiters.isEmpty()) {
+            return null;
+        }
+        log.info("DynamoDBClient limits reads of {} and writes of {}", interceptor.readLimiters.keySet(),
+                interceptor.writeLimiters.keySet());
+        return interceptor;
+    }
+
+    private static Optional<DDbAdaptiveRateLimiter> limiter(double unitsPerSecond,
+                                                            DDbConfigurationProperty.Table table) {
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(unitsPerSecond, table.getMinRatio(),
+                table.getDecreaseFactor(), table.getIncreaseRatio());
+        return limiter.isLimited() ? Optional.of(limiter) : Optional.empty();
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        limiters(context.request()).values().forEach(DDbAdaptiveRateLimiter::acquire);
+        executionAttributes.putAttribute(ATTEMPTS, new AtomicInteger());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        if (limiters(request).isEmpty()) {
+            return request;
+        }
+        return DDbRequests.returnConsumedCapacity(request);
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (null != attempts) {
+            attempts.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        Map<String, DDbAdaptiveRateLimiter> limiters = limiters(context.request());
+        if (limiters.isEmpty()) {
+            return;
+        }
+        for (ConsumedCapacity consumedCapacity : DDbRequests.consumedCapacities(context.response())) {
+            DDbAdaptiveRateLimiter limiter = limiters.get(consumedCapacity.tableName());
+            if (null != limiter && null != consumedCapacity.capacityUnits()) {
+                limiter.consume(consumedCapacity.capacityUnits());
+            }
+        }
+        AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (null != attempts && attempts.get() > 1) {
+            throttled(limiters, context.request());
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        if (context.exception() instanceof SdkServiceException e && e.isThrottlingException()) {
+            throttled(limiters(context.request()), context.request());
+        }
+    }
+
+    private void throttled(Map<String, DDbAdaptiveRateLimiter> limiters, SdkRequest request) {
+        limiters.forEach((tableName, limiter) -> {
+            limiter.throttled();
+            log.debug("{} on table {} was throttled, limit lowered to {} capacity units per second",
+                    request.getClass().getSimpleName(), tableName, limiter.rate());
+        });
+    }
+
+    private Map<String, DDbAdaptiveRateLimiter> limiters(SdkRequest request) {
+        Map<String, DDbAdaptiveRateLimiter> limiters = DDbRequests.isRead(request) ? readLimiters : writeLimiters;
+        if (limiters.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, DDbAdaptiveRateLimiter> matching = new HashMap<>();
+        for (String tableName : DDbRequests.tableNames(request)) {
+            DDbAdaptiveRateLimiter limiter = limiters.get(tableName);
+            if (null != limiter) {
+                matching.put(tableName, limiter);
+            }
+        }
+        return matching;
+    }
+}
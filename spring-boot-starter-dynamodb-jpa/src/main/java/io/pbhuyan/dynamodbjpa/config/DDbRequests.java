@@ -0,0 +1,117 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * What the execution interceptors of this starter need to know about low level DynamoDB requests and responses:
+ * the tables a request touches, whether it reads or writes and the capacity it consumed.
+ */
+final class DDbRequests {
+
+    private DDbRequests() {
+    }
+
+    /**
+     * Asks DynamoDB to return the consumed capacity of the request, unless the caller already asked for it.
+     */
+    static SdkRequest returnConsumedCapacity(SdkRequest request) {
+        ReturnConsumedCapacity total = ReturnConsumedCapacity.TOTAL;
+        return switch (request) {
+            case GetItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case QueryRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case ScanRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case BatchGetItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case TransactGetItemsRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case PutItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case UpdateItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case DeleteItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case BatchWriteItemRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            case TransactWriteItemsRequest r when missing(r.returnConsumedCapacity()) ->
+                    r.toBuilder().returnConsumedCapacity(total).build();
+            default -> request;
+        };
+    }
+
+    private static boolean missing(ReturnConsumedCapacity returnConsumedCapacity) {
+        return null == returnConsumedCapacity || ReturnConsumedCapacity.NONE == returnConsumedCapacity;
+    }
+
+    static boolean isRead(SdkRequest request) {
+        return request instanceof GetItemRequest || request instanceof QueryRequest
+                || request instanceof ScanRequest || request instanceof BatchGetItemRequest
+                || request instanceof TransactGetItemsRequest;
+    }
+
+    static Set<String> tableNames(SdkRequest request) {
+        return switch (request) {
+            case BatchGetItemRequest r -> r.requestItems().keySet();
+            case BatchWriteItemRequest r -> r.requestItems().keySet();
+            case TransactGetItemsRequest r -> collect(r.transactItems().stream().map(item -> item.get().tableName()));
+            case TransactWriteItemsRequest r -> collect(r.transactItems().stream()
+                    .map(DDbRequests::tableName));
+            default -> request.getValueForField("TableName", String.class).map(Set::of).orElse(Set.of());
+        };
+    }
+
+    private static String tableName(TransactWriteItem item) {
+        if (null != item.put()) {
+            return item.put().tableName();
+        }
+        if (null != item.update()) {
+            return item.update().tableName();
+        }
+        if (null != item.delete()) {
+            return item.delete().tableName();
+        }
+        return null != item.conditionCheck() ? item.conditionCheck().tableName() : null;
+    }
+
+    private static Set<String> collect(Stream<String> tableNames) {
+        Set<String> names = new LinkedHashSet<>();
+        tableNames.filter(Objects::nonNull).forEach(names::add);
+        return names;
+    }
+
+    static List<ConsumedCapacity> consumedCapacities(SdkResponse response) {
+        Object consumedCapacity = response.getValueForField("ConsumedCapacity", Object.class).orElse(null);
+        if (consumedCapacity instanceof ConsumedCapacity single) {
+            return List.of(single);
+        }
+        if (consumedCapacity instanceof List<?> list) {
+            return list.stream()
+                    .filter(ConsumedCapacity.class::isInstance)
+                    .map(ConsumedCapacity.class::cast)
+                    .toList();
+        }
+        return List.of();
+    }
+}
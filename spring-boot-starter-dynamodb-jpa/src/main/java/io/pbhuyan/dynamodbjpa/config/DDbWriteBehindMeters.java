@@ -0,0 +1,74 @@
+package io.pbhuyan.dynamodbjpa.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.pbhuyan.dynamodbjpa.model.DDbWriteBehindStats;
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import io.pbhuyan.dynamodbjpa.repo.DDbWriteBehind;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers, once all singletons are created, the write-behind buffer of every repository bean annotated with
+ * {@link DDbWriteBehind} in Micrometer:
+ * <ul>
+ *     <li>dynamodb.write.behind.queue.depth, gauge of the entities currently buffered</li>
+ *     <li>dynamodb.write.behind.flushes, timer of the flushes</li>
+ *     <li>dynamodb.write.behind.items, entities written, or dropped after max-retries, tagged outcome=written or
+ *     failed</li>
+ * </ul>
+ * All meters are tagged with the repository.
+ */
+final class DDbWriteBehindMeters implements SmartInitializingSingleton {
+    static final String QUEUE_DEPTH = "dynamodb.write.behind.queue.depth";
+    static final String FLUSHES = "dynamodb.write.behind.flushes";
+    static final String ITEMS = "dynamodb.write.behind.items";
+    private static final DDbWriteBehindStats NONE = new DDbWriteBehindStats(0, 0, 0, 0, Duration.ZERO, Duration.ZERO);
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<DDbCrudRepository<?, ?, ?>> repositories;
+
+    DDbWriteBehindMeters(MeterRegistry meterRegistry, ObjectProvider<DDbCrudRepository<?, ?, ?>> repositories) {
+        this.meterRegistry = meterRegistry;
+        this.repositories = repositories;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        repositories.orderedStream()
+                .filter(repository -> repository.getClass().isAnnotationPresent(DDbWriteBehind.class))
+                .forEach(this::register);
+    }
+
+    private void register(DDbCrudRepository<?, ?, ?> repository) {
+        Tags tags = Tags.of("repository", repository.getClass().getSimpleName());
+        Gauge.builder(QUEUE_DEPTH, repository, buffered -> stats(buffered).queueDepth())
+                .description("Entities buffered by the write-behind repository")
+                .baseUnit("items")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionTimer.builder(FLUSHES, repository, flushed -> stats(flushed).flushCount(),
+                        flushed -> stats(flushed).totalFlushLatency().toNanos(), TimeUnit.NANOSECONDS)
+                .description("Flushes of the write-behind buffer")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder(ITEMS, repository, written -> stats(written).flushedItems())
+                .baseUnit("items")
+                .tags(tags.and("outcome", "written"))
+                .register(meterRegistry);
+        FunctionCounter.builder(ITEMS, repository, failed -> stats(failed).failedItems())
+                .baseUnit("items")
+                .tags(tags.and("outcome", "failed"))
+                .register(meterRegistry);
+    }
+
+    private static DDbWriteBehindStats stats(DDbCrudRepository<?, ?, ?> repository) {
+        return repository.writeBehindStats().orElse(NONE);
+    }
+}
@@ -1,9 +1,18 @@
 package io.pbhuyan.dynamodbjpa.exception;
 
-import org.springframework.beans.factory.BeanCreationException;
+import lombok.Getter;
+import org.apache.logging.log4j.util.Strings;
 
+@Getter
 public class DDbConfigException extends DDbException {
+    private final String action;
     public DDbConfigException(String msg) {
         super(msg);
+        this.action = Strings.EMPTY;
+    }
+
+    public DDbConfigException(String msg, String action) {
+        super(msg);
+        this.action = action;
     }
 }
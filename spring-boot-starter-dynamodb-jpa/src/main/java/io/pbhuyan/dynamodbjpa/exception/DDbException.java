@@ -4,4 +4,8 @@ public class DDbException extends RuntimeException {
     public DDbException(String msg) {
         super(msg);
     }
+
+    public DDbException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
 }
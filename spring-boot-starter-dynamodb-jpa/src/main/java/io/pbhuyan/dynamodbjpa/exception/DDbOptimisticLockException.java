@@ -0,0 +1,11 @@
+package io.pbhuyan.dynamodbjpa.exception;
+
+/**
+ * Thrown when a conditional write of a versioned entity fails because the item was changed or removed by someone
+ * else since the entity was read. Re-read the item and apply the change again, or use readModifyWrite.
+ */
+public class DDbOptimisticLockException extends DDbException {
+    public DDbOptimisticLockException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package io.pbhuyan.dynamodbjpa.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when DynamoDB cancels a transaction, nothing of it was written. The cancellation reasons are listed in
+ * the order the items were added to the transaction, "None" for the items that did not cause the cancellation.
+ */
+@Getter
+public class DDbTransactionException extends DDbException {
+    private final List<String> cancellationReasons;
+
+    public DDbTransactionException(String msg, List<String> cancellationReasons, Throwable cause) {
+        super(msg, cause);
+        this.cancellationReasons = List.copyOf(cancellationReasons);
+    }
+}
@@ -8,6 +8,9 @@ public class DDbConfigFailureAnalyzer
         extends AbstractFailureAnalyzer<DDbConfigException> {
     @Override
     protected FailureAnalysis analyze(Throwable rootFailure, DDbConfigException cause) {
+        if (!cause.getAction().isEmpty()) {
+            return new FailureAnalysis(cause.getMessage(), cause.getAction(), cause);
+        }
         String action = """
                 Consider adding aws.region or aws.dynamodb.region to your application properties.
                     
@@ -0,0 +1,20 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+/**
+ * DynamoDB operation a repository method is served by, as listed in the access path report of
+ * aws.dynamodb.guard.access-path-report.
+ *
+ * @param method    repository method, with its distinguishing parameters for overloaded methods, or
+ *                  Interface.method for derived queries.
+ * @param operation DynamoDB operation sending the requests, such as GetItem, Query, Query on index-name or Scan,
+ *                  followed by what the settings add, such as consistent or cached.
+ */
+public record DDbAccessPath(String method, String operation) {
+
+    /**
+     * @return true when the method reads the whole table.
+     */
+    public boolean isScan() {
+        return operation.startsWith("Scan");
+    }
+}
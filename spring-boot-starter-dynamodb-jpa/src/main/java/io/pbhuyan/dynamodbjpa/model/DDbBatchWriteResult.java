@@ -0,0 +1,21 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+import java.util.List;
+
+/**
+ * Outcome of a batched write. Items DynamoDB kept returning as unprocessed after all retries are listed so the
+ * caller can decide to resubmit, park or report them.
+ *
+ * @param processedCount   number of items written.
+ * @param unprocessedItems items that could not be written.
+ * @param <T>              entity type.
+ */
+public record DDbBatchWriteResult<T>(int processedCount, List<T> unprocessedItems) {
+
+    /**
+     * @return true if every item was written.
+     */
+    public boolean isSuccess() {
+        return unprocessedItems.isEmpty();
+    }
+}
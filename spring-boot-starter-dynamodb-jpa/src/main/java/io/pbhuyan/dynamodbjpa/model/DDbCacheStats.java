@@ -0,0 +1,20 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+/**
+ * Snapshot of the near cache counters of a repository.
+ *
+ * @param hitCount      lookups served from the cache.
+ * @param missCount     lookups that went to DynamoDB.
+ * @param evictionCount entries evicted because of size or expiry.
+ * @param size          approximate number of cached entries.
+ */
+public record DDbCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+
+    /**
+     * @return ratio of lookups served from the cache, 1.0 when nothing was looked up yet.
+     */
+    public double hitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+}
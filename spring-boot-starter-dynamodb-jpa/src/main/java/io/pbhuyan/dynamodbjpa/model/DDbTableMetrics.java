@@ -0,0 +1,25 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+/**
+ * Summary of the requests sent to a table since the application started, as reported by the dynamodb actuator
+ * endpoint. Rates are averages over the whole period.
+ *
+ * @param table                      table name, a comma separated list for batches spanning several tables.
+ * @param entity                     entity mapped to the table.
+ * @param requests                   requests sent, every page of a Query or Scan counts.
+ * @param failedRequests             requests that failed, throttled ones included.
+ * @param throttledRequests          requests that failed because DynamoDB throttled them.
+ * @param meanLatencyMillis          mean duration of a request including retries.
+ * @param maxLatencyMillis           longest recent request.
+ * @param consumedReadCapacityUnits  read capacity units consumed.
+ * @param consumedWriteCapacityUnits write capacity units consumed.
+ * @param items                      items returned.
+ * @param requestsPerSecond          average request rate.
+ * @param readCapacityUnitsPerSecond average read capacity consumption.
+ * @param writeCapacityUnitsPerSecond average write capacity consumption.
+ */
+public record DDbTableMetrics(String table, String entity, long requests, long failedRequests, long throttledRequests,
+                              double meanLatencyMillis, double maxLatencyMillis, double consumedReadCapacityUnits,
+                              double consumedWriteCapacityUnits, double items, double requestsPerSecond,
+                              double readCapacityUnitsPerSecond, double writeCapacityUnitsPerSecond) {
+}
@@ -0,0 +1,17 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the write-behind buffer of a repository.
+ *
+ * @param queueDepth        entities currently buffered.
+ * @param flushCount        flushes performed so far.
+ * @param flushedItems      entities written by all flushes.
+ * @param failedItems       entities dropped after max-retries failed attempts to write them.
+ * @param lastFlushLatency  duration of the most recent flush.
+ * @param totalFlushLatency duration of all flushes so far.
+ */
+public record DDbWriteBehindStats(int queueDepth, long flushCount, long flushedItems, long failedItems,
+                                  Duration lastFlushLatency, Duration totalFlushLatency) {
+}
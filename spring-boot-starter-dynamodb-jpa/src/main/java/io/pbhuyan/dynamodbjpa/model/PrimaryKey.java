@@ -0,0 +1,16 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+/**
+ * Partition key and sort key pair identifying a single item.
+ *
+ * @param partitionKey value of the partition key.
+ * @param sortKey      value of the sort key.
+ * @param <R>          partition key type.
+ * @param <S>          sort key type.
+ */
+public record PrimaryKey<R, S>(R partitionKey, S sortKey) {
+
+    public static <R, S> PrimaryKey<R, S> of(R partitionKey, S sortKey) {
+        return new PrimaryKey<>(partitionKey, sortKey);
+    }
+}
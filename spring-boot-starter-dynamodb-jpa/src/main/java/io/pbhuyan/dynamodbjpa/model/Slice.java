@@ -0,0 +1,20 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+import java.util.List;
+
+/**
+ * One page of results together with the opaque token needed to fetch the next page.
+ *
+ * @param items     entities of this page.
+ * @param nextToken URL-safe continuation token, null when this is the last page.
+ * @param <T>       entity type.
+ */
+public record Slice<T>(List<T> items, String nextToken) {
+
+    /**
+     * @return true if another page can be fetched with {@link #nextToken()}.
+     */
+    public boolean hasNext() {
+        return null != nextToken;
+    }
+}
@@ -0,0 +1,60 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+/**
+ * Condition on the sort key of a Query. Translated into the sort key part of the KeyConditionExpression so only
+ * the matching slice of an item collection is read.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * dynamoDbRepository.findAllBy("partitionKey", SortKeyCondition.between(from, to));
+ * dynamoDbRepository.findAllBy("partitionKey", SortKeyCondition.beginsWith("2024-"));
+ * }
+ * </pre>
+ *
+ * @param operator comparison applied to the sort key.
+ * @param value    value compared against, lower bound for {@link Operator#BETWEEN}.
+ * @param to       upper bound for {@link Operator#BETWEEN}, null otherwise.
+ * @param <S>      sort key type.
+ */
+public record SortKeyCondition<S>(Operator operator, S value, S to) {
+
+    public enum Operator {
+        EQUAL_TO, LESS_THAN, LESS_THAN_OR_EQUAL_TO, GREATER_THAN, GREATER_THAN_OR_EQUAL_TO, BETWEEN, BEGINS_WITH
+    }
+
+    public static <S> SortKeyCondition<S> equalTo(S value) {
+        return new SortKeyCondition<>(Operator.EQUAL_TO, value, null);
+    }
+
+    public static <S> SortKeyCondition<S> lessThan(S value) {
+        return new SortKeyCondition<>(Operator.LESS_THAN, value, null);
+    }
+
+    public static <S> SortKeyCondition<S> lessThanOrEqualTo(S value) {
+        return new SortKeyCondition<>(Operator.LESS_THAN_OR_EQUAL_TO, value, null);
+    }
+
+    public static <S> SortKeyCondition<S> greaterThan(S value) {
+        return new SortKeyCondition<>(Operator.GREATER_THAN, value, null);
+    }
+
+    public static <S> SortKeyCondition<S> greaterThanOrEqualTo(S value) {
+        return new SortKeyCondition<>(Operator.GREATER_THAN_OR_EQUAL_TO, value, null);
+    }
+
+    /**
+     * Both bounds are inclusive.
+     */
+    public static <S> SortKeyCondition<S> between(S from, S to) {
+        return new SortKeyCondition<>(Operator.BETWEEN, from, to);
+    }
+
+    /**
+     * Only applicable to String sort keys.
+     */
+    public static SortKeyCondition<String> beginsWith(String prefix) {
+        return new SortKeyCondition<>(Operator.BEGINS_WITH, prefix, null);
+    }
+}
@@ -0,0 +1,105 @@
+package io.pbhuyan.dynamodbjpa.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes a partial update of an item. Each call adds one action, all actions are sent together as a single
+ * UpdateItem call so only the touched attributes cross the wire. Attributes are named as they are stored in the
+ * table, nested map entries can be addressed with a dotted path such as address.city. Values are converted like
+ * the mapped attribute, an AttributeValue is sent as it is.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * customerRepository.update("customerId", update -> update
+ *         .set("status", "ACTIVE")
+ *         .increment("loginCount", 1)
+ *         .remove("lockedUntil"));
+ * }
+ * </pre>
+ */
+public class UpdateSpec {
+    private final List<Action> actions = new ArrayList<>();
+
+    /**
+     * Sets the attribute to the value.
+     */
+    public UpdateSpec set(String attribute, Object value) {
+        return add(Operation.SET, attribute, value);
+    }
+
+    /**
+     * Sets the attribute to the value unless the attribute already has a value.
+     */
+    public UpdateSpec setIfNotExists(String attribute, Object value) {
+        return add(Operation.SET_IF_NOT_EXISTS, attribute, value);
+    }
+
+    /**
+     * Atomically adds delta to a numeric attribute, starting from 0 if the attribute is missing. Use a negative
+     * delta to decrement.
+     */
+    public UpdateSpec increment(String attribute, Number delta) {
+        return add(Operation.INCREMENT, attribute, delta);
+    }
+
+    /**
+     * ADD action, adds the number to a numeric attribute or the elements of the set to a set attribute.
+     */
+    public UpdateSpec add(String attribute, Object value) {
+        return add(Operation.ADD, attribute, value);
+    }
+
+    /**
+     * Removes the elements from a set attribute.
+     */
+    public UpdateSpec delete(String attribute, Set<?> elements) {
+        return add(Operation.DELETE, attribute, elements);
+    }
+
+    /**
+     * Removes the attribute from the item.
+     */
+    public UpdateSpec remove(String attribute) {
+        return add(Operation.REMOVE, attribute, null);
+    }
+
+    /**
+     * @return actions in the order they were added.
+     */
+    public List<Action> actions() {
+        return Collections.unmodifiableList(actions);
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    private UpdateSpec add(Operation operation, String attribute, Object value) {
+        if (null == attribute || attribute.isBlank()) {
+            throw new IllegalArgumentException("Attribute name of an update must not be blank.");
+        }
+        if (operation != Operation.REMOVE && null == value) {
+            throw new IllegalArgumentException("Value of %s %s must not be null, use remove to clear an attribute."
+                    .formatted(operation, attribute));
+        }
+        actions.add(new Action(operation, attribute, value));
+        return this;
+    }
+
+    public enum Operation {
+        SET, SET_IF_NOT_EXISTS, INCREMENT, ADD, DELETE, REMOVE
+    }
+
+    /**
+     * @param operation what to do with the attribute.
+     * @param attribute attribute name or dotted path.
+     * @param value     operand, null for REMOVE.
+     */
+    public record Action(Operation operation, String attribute, Object value) {
+    }
+}
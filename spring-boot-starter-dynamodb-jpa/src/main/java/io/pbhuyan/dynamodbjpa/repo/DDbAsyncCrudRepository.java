@@ -0,0 +1,223 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.annotations.NotNull;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link DDbCrudRepository} built on {@link DynamoDbEnhancedAsyncClient}. Every write
+ * returns a {@link CompletableFuture}, failures are reported through the future.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * @Repository
+ * public class CustomerAsyncCrudRepository extends DDbAsyncCrudRepository<Customer, String, Void> {
+ *
+ *     @Autowired
+ *     public CustomerAsyncCrudRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+ *         super(dynamoDbEnhancedAsyncClient);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+@Slf4j
+public abstract class DDbAsyncCrudRepository<T extends DDbEntity, R, S> extends DDbAsyncReadRepository<T, R, S> {
+
+    public DDbAsyncCrudRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        super(dynamoDbEnhancedAsyncClient);
+    }
+
+    public DDbAsyncCrudRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient, boolean consistentRead) {
+        super(dynamoDbEnhancedAsyncClient, consistentRead);
+    }
+
+    /**
+     * Puts a single item in the mapped table. If the table contains an item with the same primary key, it will be
+     * replaced with this item.
+     *
+     * @param entity to be inserted into or overwritten in the database table.
+     * @return future completing once the item is written.
+     */
+    public CompletableFuture<Void> save(@NotNull T entity) {
+        return table.putItem(entity);
+    }
+
+    /**
+     * Puts all the supplied items in the mapped table through BatchWriteItem in chunks of 25. Up to
+     * aws.dynamodb.batch.concurrency chunks are in flight at a time, unprocessed items are retried with exponential
+     * backoff as configured under aws.dynamodb.batch. Of several entities with the same key the last one is written.
+     *
+     * @param entities Iterable of entities.
+     * @return future of the result listing the items that could not be written.
+     */
+    public CompletableFuture<DDbBatchWriteResult<T>> saveAll(@NotNull Iterable<T> entities) {
+        return batchWrite(entities, false);
+    }
+
+    /**
+     * Deletes a single item from the mapped table.
+     *
+     * @param entity to be deleted from the database table.
+     * @return future completing once the item is deleted.
+     */
+    public CompletableFuture<Void> delete(@NotNull T entity) {
+        return table.deleteItem(entity).thenApply(deleted -> null);
+    }
+
+    /**
+     * Deletes a single item from the mapped table matching the partitionKey in a single conditional DeleteItem
+     * call. The future fails with NoSuchElementException if no matching entity is found.
+     *
+     * @param partitionKey of the entity.
+     * @return future completing once the item is deleted.
+     */
+    public CompletableFuture<Void> delete(@NotNull R partitionKey) {
+        try {
+            requireNoSortKey("delete(partitionKey)");
+        } catch (DDbRepoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return deleteExisting(getKey(partitionKey), () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s""".formatted(entityClassName, partitionKey)));
+    }
+
+    /**
+     * Deletes a single item from the mapped table matching the partitionKey and sortKey in a single conditional
+     * DeleteItem call. The future fails with NoSuchElementException if no matching entity is found.
+     *
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @return future completing once the item is deleted.
+     */
+    public CompletableFuture<Void> delete(@NotNull R partitionKey, S sortKey) {
+        try {
+            requireSortKey("delete(partitionKey, sortKey)");
+        } catch (DDbRepoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return deleteExisting(getKey(partitionKey, sortKey), () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s and sortKey %s
+                """.formatted(entityClassName, partitionKey, sortKey)));
+    }
+
+    /**
+     * Deletes all the supplied items from the mapped table through BatchWriteItem in chunks of 25. Up to
+     * aws.dynamodb.batch.concurrency chunks are in flight at a time.
+     *
+     * @param entities Iterable of entities
+     * @return future of the result listing the items that could not be deleted.
+     */
+    public CompletableFuture<DDbBatchWriteResult<T>> delete(@NotNull Iterable<T> entities) {
+        return batchWrite(entities, true);
+    }
+
+    private CompletableFuture<Void> deleteExisting(Key key, Supplier<NoSuchElementException> notFound) {
+        Expression itemExists = Expression.builder()
+                .expression("attribute_exists(#pk)")
+                .putExpressionName("#pk", table.tableSchema().tableMetadata().primaryPartitionKey())
+                .build();
+        return table.deleteItem(DeleteItemEnhancedRequest.builder().key(key).conditionExpression(itemExists).build())
+                .<Void>thenApply(deleted -> null)
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    return CompletableFuture.failedFuture(cause instanceof ConditionalCheckFailedException
+                            ? notFound.get() : cause);
+                });
+    }
+
+    private CompletableFuture<DDbBatchWriteResult<T>> batchWrite(Iterable<T> entities, boolean delete) {
+        // A batch must not contain the same key twice, the last entity wins like it would with single writes
+        Map<Key, T> distinct = new LinkedHashMap<>();
+        entities.forEach(entity -> distinct.put(table.keyFrom(entity), entity));
+        Queue<Map<Key, T>> chunks = new ConcurrentLinkedQueue<>();
+        Map<Key, T> chunk = new LinkedHashMap<>();
+        for (Map.Entry<Key, T> entry : distinct.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == DDbBatchWriter.MAX_BATCH_WRITE_SIZE) {
+                chunks.add(chunk);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        DDbBackoff backoff = DDbBackoff.of(settings.getBatch());
+        Queue<T> unprocessed = new ConcurrentLinkedQueue<>();
+        // At most aws.dynamodb.batch.concurrency chunks are in flight, each writer takes the next chunk when done
+        int writers = Math.min(Math.max(1, settings.getBatch().getConcurrency()), chunks.size());
+        CompletableFuture<?>[] writes = new CompletableFuture<?>[writers];
+        for (int writer = 0; writer < writers; writer++) {
+            writes[writer] = writeRemaining(chunks, delete, backoff, unprocessed);
+        }
+        return CompletableFuture.allOf(writes)
+                .thenApply(ignored -> new DDbBatchWriteResult<>(distinct.size() - unprocessed.size(),
+                        List.copyOf(unprocessed)));
+    }
+
+    private CompletableFuture<Void> writeRemaining(Queue<Map<Key, T>> chunks, boolean delete, DDbBackoff backoff,
+                                                   Queue<T> unprocessed) {
+        Map<Key, T> chunk = chunks.poll();
+        if (null == chunk) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeChunk(chunk, delete, backoff, 0).thenCompose(failed -> {
+            unprocessed.addAll(failed.values());
+            return writeRemaining(chunks, delete, backoff, unprocessed);
+        });
+    }
+
+    private CompletableFuture<Map<Key, T>> writeChunk(Map<Key, T> pending, boolean delete, DDbBackoff backoff,
+                                                      int attempt) {
+        WriteBatch.Builder<T> writeBatch = WriteBatch.builder(entityClass).mappedTableResource(table);
+        pending.values().forEach(delete ? writeBatch::addDeleteItem : writeBatch::addPutItem);
+        BatchWriteItemEnhancedRequest request = BatchWriteItemEnhancedRequest.builder()
+                .addWriteBatch(writeBatch.build())
+                .build();
+        return dynamoDbEnhancedAsyncClient.batchWriteItem(request).thenCompose(result -> {
+            List<Key> unprocessedKeys = delete
+                    ? result.unprocessedDeleteItemsForTable(table)
+                    : result.unprocessedPutItemsForTable(table).stream().map(table::keyFrom).toList();
+            if (unprocessedKeys.isEmpty()) {
+                return CompletableFuture.completedFuture(Map.of());
+            }
+            Map<Key, T> retry = new LinkedHashMap<>();
+            for (Key key : unprocessedKeys) {
+                retry.put(key, pending.get(key));
+            }
+            if (!backoff.canRetry(attempt)) {
+                log.warn("{} items of table {} are still unprocessed after {} retries.",
+                        retry.size(), table.tableName(), attempt);
+                return CompletableFuture.completedFuture(retry);
+            }
+            return CompletableFuture.runAsync(() -> {
+                    }, CompletableFuture.delayedExecutor(backoff.delayMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> writeChunk(retry, delete, backoff, attempt + 1));
+        });
+    }
+}
@@ -0,0 +1,262 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.Slice;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
+import io.pbhuyan.dynamodbjpa.support.DDbContinuationToken;
+import io.pbhuyan.dynamodbjpa.support.DDbTableRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import org.springframework.beans.factory.annotation.Autowired;
+import software.amazon.awssdk.annotations.NotNull;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking counterpart of {@link DDbReadRepository} built on {@link DynamoDbEnhancedAsyncClient}. Single item
+ * reads complete a {@link CompletableFuture}, multi item reads are exposed as a {@link SdkPublisher} which is a
+ * reactive streams Publisher fetching pages on demand.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * @Repository
+ * public class CustomerAsyncReadRepository extends DDbAsyncReadRepository<Customer, String, Void> {
+ *
+ *     @Autowired
+ *     public CustomerAsyncReadRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+ *         super(dynamoDbEnhancedAsyncClient);
+ *     }
+ * }
+ * }
+ * </pre>
+ */
+@Slf4j
+public abstract class DDbAsyncReadRepository<T extends DDbEntity, R, S> implements DDbBaseRepository<T, R, S> {
+
+    DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
+    DynamoDbAsyncTable<T> table;
+    Class<T> entityClass;
+    String entityClassName;
+    private boolean consistentRead = false;
+    DDbConfigurationProperty.DynamoDB settings = new DDbConfigurationProperty.DynamoDB();
+
+    public DDbAsyncReadRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        initRepository(dynamoDbEnhancedAsyncClient);
+    }
+
+    public DDbAsyncReadRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient, boolean consistentRead) {
+        this.consistentRead = consistentRead;
+        initRepository(dynamoDbEnhancedAsyncClient);
+    }
+
+    private void initRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        this.dynamoDbEnhancedAsyncClient = dynamoDbEnhancedAsyncClient;
+        entityClass = getGenericType(GENERIC_TYPE.entity);
+        entityClassName = entityClass.getSimpleName();
+        String tableName = getTableName(entityClass);
+        table = dynamoDbEnhancedAsyncClient.table(tableName, TableSchema.fromClass(entityClass));
+        DDbTableRegistry.register(tableName, getClass(), entityClass);
+        log.info("DynamoDB entity {} is mapped to table {} (async).", entityClass, tableName);
+        getPartitionKey(entityClass);
+        getSortKey(entityClass);
+    }
+
+    /**
+     * Applies the aws.dynamodb.* settings to this repository. Called by Spring when the repository is a bean,
+     * otherwise the defaults are used.
+     *
+     * @param dDbConfigurationProperty starter configuration.
+     */
+    @Autowired(required = false)
+    public void setDDbConfigurationProperty(DDbConfigurationProperty dDbConfigurationProperty) {
+        if (null != dDbConfigurationProperty && null != dDbConfigurationProperty.getDynamodb()) {
+            this.settings = dDbConfigurationProperty.getDynamodb();
+        }
+    }
+
+    /**
+     * Publishes all the entities present in the mapped table. Served by a full table Scan, subject to
+     * aws.dynamodb.scan.policy.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAll().subscribe(this::export);
+     * }
+     * </pre>
+     *
+     * @return Publisher of all entities.
+     */
+    public SdkPublisher<T> findAll() {
+        return scan("findAll", r -> r.consistentRead(consistentRead)).items();
+    }
+
+    /**
+     * Publishes the entities matched by the scan request.
+     *
+     * @param requestConsumer A {@link Consumer} of {@link ScanEnhancedRequest} defining the scan conditions.
+     * @return Publisher of the matching entities.
+     */
+    public SdkPublisher<T> findAllBy(Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        return scan("findAllBy", requestConsumer.andThen(r -> r.consistentRead(consistentRead))).items();
+    }
+
+    /**
+     * Publishes all entities matching the partition key. Served by a Query.
+     *
+     * @param partitionKey of the entities.
+     * @return Publisher of the entities matching the partition key.
+     */
+    public SdkPublisher<T> findAllBy(@NotNull R partitionKey) {
+        return query(partitionKey, null, r -> {
+        }).items();
+    }
+
+    /**
+     * Publishes the entities matching the partition key whose sort key satisfies the condition.
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @return Publisher of the entities matching the partition key and sort key condition.
+     */
+    public SdkPublisher<T> findAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition) {
+        try {
+            requireSortKey("findAllBy(partitionKey, sortKeyCondition)");
+        } catch (DDbRepoException e) {
+            return DDbAsyncReadRepository.<T>failed(e).items();
+        }
+        return query(partitionKey, sortKeyCondition, r -> {
+        }).items();
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities matching the partition key.
+     *
+     * @param partitionKey of the entities.
+     * @param pageSize     maximum number of entities in the slice.
+     * @param token        continuation token of the previous slice, null for the first page.
+     * @return future of the slice with the token of the next page.
+     */
+    public CompletableFuture<Slice<T>> findSliceBy(@NotNull R partitionKey, int pageSize, String token) {
+        PagePublisher<T> pages = query(partitionKey, null, r -> r
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token)));
+        List<Page<T>> firstPage = new ArrayList<>(1);
+        return pages.limit(1).subscribe(firstPage::add)
+                .thenApply(ignored -> {
+                    Page<T> page = firstPage.get(0);
+                    return new Slice<>(page.items(), DDbContinuationToken.encode(page.lastEvaluatedKey()));
+                });
+    }
+
+    /**
+     * Fetches the entity matching the partition key. The future fails with DDbRepoException if a sort key is
+     * detected in the entity class.
+     *
+     * @param partitionKey of the entity.
+     * @return future of the Optional entity.
+     */
+    public CompletableFuture<Optional<T>> findBy(@NotNull R partitionKey) {
+        try {
+            requireNoSortKey("findBy(partitionKey)");
+        } catch (DDbRepoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return getItem(getKey(partitionKey));
+    }
+
+    /**
+     * Fetches the entity matching the partition key and sort key. The future fails with DDbRepoException if a
+     * sort key is missing in the entity class.
+     *
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @return future of the Optional entity.
+     */
+    public CompletableFuture<Optional<T>> findBy(@NotNull R partitionKey, @NotNull S sortKey) {
+        try {
+            requireSortKey("findBy(partitionKey, sortKey)");
+        } catch (DDbRepoException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return getItem(getKey(partitionKey, sortKey));
+    }
+
+    /**
+     * @param partitionKey of the entity.
+     * @return future completing with true if the entity exists.
+     */
+    public CompletableFuture<Boolean> existsBy(@NotNull R partitionKey) {
+        return findBy(partitionKey).thenApply(Optional::isPresent);
+    }
+
+    /**
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @return future completing with true if the entity exists.
+     */
+    public CompletableFuture<Boolean> existsBy(@NotNull R partitionKey, @NotNull S sortKey) {
+        return findBy(partitionKey, sortKey).thenApply(Optional::isPresent);
+    }
+
+    CompletableFuture<Optional<T>> getItem(Key key) {
+        return table.getItem(r -> r.consistentRead(consistentRead).key(key)).thenApply(Optional::ofNullable);
+    }
+
+    PagePublisher<T> query(R partitionKey, SortKeyCondition<S> sortKeyCondition,
+                           Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(getQueryConditional(partitionKey, sortKeyCondition))
+                .consistentRead(consistentRead);
+        requestConsumer.accept(request);
+        return table.query(request.build());
+    }
+
+    PagePublisher<T> scan(String operation, Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        try {
+            checkScanPolicy(settings.getScan().getPolicy(), table.tableName(), operation);
+        } catch (DDbRepoException e) {
+            return failed(e);
+        }
+        ScanEnhancedRequest.Builder request = ScanEnhancedRequest.builder();
+        requestConsumer.accept(request);
+        return table.scan(request.build());
+    }
+
+    /**
+     * Publisher signalling the exception to its subscriber, the publisher counterpart of
+     * CompletableFuture.failedFuture.
+     */
+    static <T> PagePublisher<T> failed(DDbRepoException exception) {
+        return PagePublisher.create(subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(exception);
+        });
+    }
+}
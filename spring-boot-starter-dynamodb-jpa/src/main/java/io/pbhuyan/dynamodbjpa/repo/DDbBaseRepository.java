@@ -1,19 +1,27 @@
 package io.pbhuyan.dynamodbjpa.repo;
 
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
 import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
 import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.Slice;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
+import io.pbhuyan.dynamodbjpa.support.DDbContinuationToken;
 import jakarta.persistence.Table;
 import org.apache.logging.log4j.util.Strings;
+import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.beans.Introspector;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public interface DDbBaseRepository<T extends DDbEntity, R, S>{
@@ -74,16 +82,117 @@ public interface DDbBaseRepository<T extends DDbEntity, R, S>{
                 .build();
     }
 
+    /**
+     * Builds the KeyConditionExpression of a Query on the given partition key and optional sort key condition.
+     *
+     * @param partitionKey     value of the partition key.
+     * @param sortKeyCondition condition on the sort key, null to match the whole item collection.
+     * @return QueryConditional to be used in the Query request.
+     */
+    default QueryConditional getQueryConditional(Object partitionKey, SortKeyCondition<?> sortKeyCondition) {
+        AttributeValue partitionKeyValue = getKeyAttributeValue(partitionKey);
+        if (null == sortKeyCondition) {
+            return QueryConditional.keyEqualTo(Key.builder().partitionValue(partitionKeyValue).build());
+        }
+        Function<Object, Key> key = sortKey -> Key.builder()
+                .partitionValue(partitionKeyValue)
+                .sortValue(getKeyAttributeValue(sortKey))
+                .build();
+        Key valueKey = key.apply(sortKeyCondition.value());
+        return switch (sortKeyCondition.operator()) {
+            case EQUAL_TO -> QueryConditional.keyEqualTo(valueKey);
+            case LESS_THAN -> QueryConditional.sortLessThan(valueKey);
+            case LESS_THAN_OR_EQUAL_TO -> QueryConditional.sortLessThanOrEqualTo(valueKey);
+            case GREATER_THAN -> QueryConditional.sortGreaterThan(valueKey);
+            case GREATER_THAN_OR_EQUAL_TO -> QueryConditional.sortGreaterThanOrEqualTo(valueKey);
+            case BETWEEN -> QueryConditional.sortBetween(valueKey, key.apply(sortKeyCondition.to()));
+            case BEGINS_WITH -> QueryConditional.sortBeginsWith(valueKey);
+        };
+    }
+
 
 
     default List<T> returnResult(PageIterable<T> result) {
         return result.items().stream().toList();
     }
 
+    /**
+     * Exposes the result as a lazy stream. Pages are fetched one at a time as the stream is consumed, so at most
+     * one page is held on the heap.
+     */
+    default Stream<T> streamResult(PageIterable<T> result) {
+        return result.items().stream();
+    }
+
+    /**
+     * Fetches only the first page of the result and encodes its LastEvaluatedKey as the continuation token.
+     */
+    default Slice<T> returnSlice(PageIterable<T> result) {
+        Page<T> page = result.iterator().next();
+        return new Slice<>(page.items(), DDbContinuationToken.encode(page.lastEvaluatedKey()));
+    }
+
+
+
 
 
 
+    /**
+     * @return true if the repository declares a sort key type other than Void.
+     */
+    default boolean hasSortKey() {
+        return !Void.class.equals(getGenericType(GENERIC_TYPE.sort_key));
+    }
 
+    default void requireSortKey(String method) {
+        if (!hasSortKey()) {
+            throw new DDbRepoException("""
+                                        
+                    Reason:
+                        Sort key is missing in the entity class %s.
+                                        
+                    Recommended Action:
+                        %s is only supported for entities with a sort key.
+                    """.formatted(getGenericType(GENERIC_TYPE.entity).getSimpleName(), method));
+        }
+    }
+
+    default void requireNoSortKey(String method) {
+        if (hasSortKey()) {
+            throw new DDbRepoException("""
+                                        
+                    Reason:
+                        Sort key detected in the entity class %s.
+                                        
+                    Recommended Action:
+                        %s is only supported for entities without a sort key.
+                    """.formatted(getGenericType(GENERIC_TYPE.entity).getSimpleName(), method));
+        }
+    }
+
+    /**
+     * Applies aws.dynamodb.scan.policy before a repository method falls back to a full table Scan.
+     *
+     * @param policy    configured scan policy.
+     * @param tableName table about to be scanned.
+     * @param operation repository method requesting the scan, used in the log and the exception.
+     */
+    default void checkScanPolicy(DDbConfigurationProperty.ScanPolicy policy, String tableName, String operation) {
+        switch (policy) {
+            case WARN -> LoggerFactory.getLogger(getClass()).warn(
+                    "{}.{} is served by a full table Scan of {}. Every item in the table is read and billed.",
+                    getClass().getSimpleName(), operation, tableName);
+            case FAIL -> throw new DDbRepoException("%s.%s requires a full table Scan of %s which is disabled.".formatted(
+                    getClass().getSimpleName(), operation, tableName),
+                    """
+                            Use a key based method such as findAllBy(partitionKey) or findAllByIndex(indexName, key) instead.
+                            
+                            Set aws.dynamodb.scan.policy to WARN or ALLOW to permit scans.
+                            """);
+            case ALLOW -> {
+            }
+        }
+    }
 
     default String getTableName(Class<T> entityClass) {
         Table table = entityClass.getAnnotation(Table.class);
@@ -0,0 +1,106 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reads entities through BatchGetItem in chunks of 100 keys. Unprocessed keys are resubmitted with exponential
+ * backoff and jitter. Chunks are optionally fetched in parallel on virtual threads.
+ *
+ * @param <T> entity type.
+ */
+@RequiredArgsConstructor
+class DDbBatchReader<T> {
+    static final int MAX_BATCH_GET_SIZE = 100;
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    private final DynamoDbTable<T> table;
+    private final Class<T> entityClass;
+    private final boolean consistentRead;
+    private final DDbBackoff backoff;
+    private final int concurrency;
+
+    Map<Key, T> read(Collection<Key> keys) {
+        // BatchGetItem rejects a request containing the same key twice
+        List<Key> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        List<List<Key>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinctKeys.size(); i += MAX_BATCH_GET_SIZE) {
+            chunks.add(distinctKeys.subList(i, Math.min(i + MAX_BATCH_GET_SIZE, distinctKeys.size())));
+        }
+        Map<Key, T> found = new HashMap<>();
+        if (concurrency <= 1 || chunks.size() == 1) {
+            chunks.forEach(chunk -> found.putAll(readChunk(chunk)));
+            return found;
+        }
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<Key, T>>> futures = chunks.stream()
+                    .map(chunk -> executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return readChunk(chunk);
+                        } finally {
+                            permits.release();
+                        }
+                    }))
+                    .toList();
+            for (Future<Map<Key, T>> future : futures) {
+                found.putAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new DDbException("Batch lookup on table %s failed: %s".formatted(table.tableName(), e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDbException("Interrupted during batch lookup on table %s.".formatted(table.tableName()));
+        }
+        return found;
+    }
+
+    private Map<Key, T> readChunk(List<Key> chunk) {
+        Map<Key, T> found = new HashMap<>();
+        List<Key> pending = chunk;
+        int attempt = 0;
+        while (true) {
+            ReadBatch.Builder<T> readBatch = ReadBatch.builder(entityClass).mappedTableResource(table);
+            pending.forEach(key -> readBatch.addGetItem(GetItemEnhancedRequest.builder()
+                    .key(key)
+                    .consistentRead(consistentRead)
+                    .build()));
+            // Only the first page is taken, the SDK would otherwise resubmit unprocessed keys without any backoff
+            BatchGetResultPage page = dynamoDbEnhancedClient.batchGetItem(r -> r.addReadBatch(readBatch.build()))
+                    .iterator().next();
+            page.resultsForTable(table).forEach(item -> found.put(table.keyFrom(item), item));
+            pending = page.unprocessedKeysForTable(table);
+            if (pending.isEmpty()) {
+                return found;
+            }
+            if (!backoff.canRetry(attempt)) {
+                throw new DDbException("%d keys of table %s are still unprocessed after %d retries."
+                        .formatted(pending.size(), table.tableName(), attempt));
+            }
+            backoff.pause(attempt++);
+        }
+    }
+}
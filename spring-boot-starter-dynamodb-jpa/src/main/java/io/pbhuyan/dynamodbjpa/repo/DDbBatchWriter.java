@@ -0,0 +1,88 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes entities through BatchWriteItem in chunks of 25. Unprocessed items are resubmitted with exponential
+ * backoff and jitter, whatever is still unprocessed after the last retry is reported in the result.
+ *
+ * @param <T> entity type.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DDbBatchWriter<T> {
+    static final int MAX_BATCH_WRITE_SIZE = 25;
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    private final DynamoDbTable<T> table;
+    private final Class<T> entityClass;
+    private final DDbBackoff backoff;
+
+    DDbBatchWriteResult<T> put(Iterable<T> entities) {
+        return write(entities, false);
+    }
+
+    DDbBatchWriteResult<T> delete(Iterable<T> entities) {
+        return write(entities, true);
+    }
+
+    private DDbBatchWriteResult<T> write(Iterable<T> entities, boolean delete) {
+        int processed = 0;
+        List<T> unprocessed = new ArrayList<>();
+        Iterator<T> iterator = entities.iterator();
+        while (iterator.hasNext()) {
+            // A batch must not contain the same key twice, the last entity wins like it would with single writes
+            Map<Key, T> chunk = new LinkedHashMap<>();
+            while (iterator.hasNext() && chunk.size() < MAX_BATCH_WRITE_SIZE) {
+                T entity = iterator.next();
+                chunk.put(table.keyFrom(entity), entity);
+            }
+            int chunkSize = chunk.size();
+            Map<Key, T> failed = writeChunk(chunk, delete);
+            processed += chunkSize - failed.size();
+            unprocessed.addAll(failed.values());
+        }
+        return new DDbBatchWriteResult<>(processed, unprocessed);
+    }
+
+    private Map<Key, T> writeChunk(Map<Key, T> pending, boolean delete) {
+        int attempt = 0;
+        while (true) {
+            WriteBatch.Builder<T> writeBatch = WriteBatch.builder(entityClass).mappedTableResource(table);
+            pending.values().forEach(delete ? writeBatch::addDeleteItem : writeBatch::addPutItem);
+            BatchWriteResult result = dynamoDbEnhancedClient.batchWriteItem(r -> r.addWriteBatch(writeBatch.build()));
+
+            List<Key> unprocessedKeys = delete
+                    ? result.unprocessedDeleteItemsForTable(table)
+                    : result.unprocessedPutItemsForTable(table).stream().map(table::keyFrom).toList();
+            if (unprocessedKeys.isEmpty()) {
+                return Map.of();
+            }
+            Map<Key, T> retry = new LinkedHashMap<>();
+            for (Key key : unprocessedKeys) {
+                retry.put(key, pending.get(key));
+            }
+            pending = retry;
+            if (!backoff.canRetry(attempt)) {
+                log.warn("{} items of table {} are still unprocessed after {} retries.",
+                        pending.size(), table.tableName(), attempt);
+                return pending;
+            }
+            backoff.pause(attempt++);
+        }
+    }
+}
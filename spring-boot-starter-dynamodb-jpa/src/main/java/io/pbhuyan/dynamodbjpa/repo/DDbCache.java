@@ -0,0 +1,49 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts an in-process near cache in front of findBy and existsBy of the annotated repository. Unset attributes fall
+ * back to aws.dynamodb.cache.*.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * @Repository
+ * @DDbCache(maxSize = 50_000, expireAfterWrite = "10m")
+ * public class CountryRepository extends DDbCrudRepository<Country, String, Void> {
+ *     ...
+ * }
+ * }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DDbCache {
+
+    /**
+     * @return maximum number of entries, -1 to use aws.dynamodb.cache.max-size.
+     */
+    long maxSize() default -1;
+
+    /**
+     * @return how long an entry is served after it was loaded, e.g. 30s or 10m. Empty to use
+     * aws.dynamodb.cache.expire-after-write.
+     */
+    String expireAfterWrite() default "";
+
+    /**
+     * @return whether lookups that found no item are cached, DEFAULT to use aws.dynamodb.cache.cache-missing.
+     */
+    CacheMissing cacheMissing() default CacheMissing.DEFAULT;
+
+    enum CacheMissing {
+        DEFAULT, TRUE, FALSE
+    }
+}
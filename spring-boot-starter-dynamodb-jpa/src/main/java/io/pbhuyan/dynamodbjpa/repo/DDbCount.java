@@ -0,0 +1,86 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import io.pbhuyan.dynamodbjpa.support.DDbCapacityBudget;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts items with Select.COUNT, so DynamoDB only returns the number of matching items of every page and no
+ * item is transferred or deserialized. Pages still end at 1 MB of read data, they are followed through
+ * LastEvaluatedKey until the whole key range is counted. Full table counts scan totalSegments segments, each one
+ * on its own virtual thread, and charge the consumed capacity against the optional read capacity budget.
+ */
+@RequiredArgsConstructor
+class DDbCount {
+    private final DynamoDbClient dynamoDbClient;
+    private final int totalSegments;
+    private final DDbCapacityBudget readCapacityBudget;
+
+    long query(QueryRequest request) {
+        long count = 0;
+        for (QueryResponse page : dynamoDbClient.queryPaginator(request.toBuilder().select(Select.COUNT).build())) {
+            count += page.count();
+        }
+        return count;
+    }
+
+    long scan(ScanRequest request) {
+        if (totalSegments <= 1) {
+            return scanSegment(request);
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> segments = new ArrayList<>(totalSegments);
+            for (int segment = 0; segment < totalSegments; segment++) {
+                ScanRequest segmentRequest = request.toBuilder()
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .build();
+                segments.add(executor.submit(() -> scanSegment(segmentRequest)));
+            }
+            long count = 0;
+            for (Future<Long> segment : segments) {
+                count += segment.get();
+            }
+            return count;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new DDbException("Count of table %s failed.".formatted(request.tableName()), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDbException("Interrupted during count of table %s.".formatted(request.tableName()));
+        }
+    }
+
+    private long scanSegment(ScanRequest request) {
+        ScanRequest.Builder builder = request.toBuilder().select(Select.COUNT);
+        if (readCapacityBudget.isLimited()) {
+            builder.returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        long count = 0;
+        for (ScanResponse page : dynamoDbClient.scanPaginator(builder.build())) {
+            count += page.count();
+            ConsumedCapacity consumedCapacity = page.consumedCapacity();
+            if (null != consumedCapacity && null != consumedCapacity.capacityUnits()) {
+                readCapacityBudget.consume(consumedCapacity.capacityUnits());
+            }
+        }
+        return count;
+    }
+}
@@ -1,22 +1,84 @@
 package io.pbhuyan.dynamodbjpa.repo;
 
 import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbOptimisticLockException;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.dynamodbjpa.model.DDbWriteBehindStats;
+import io.pbhuyan.dynamodbjpa.model.UpdateSpec;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import software.amazon.awssdk.annotations.NotNull;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
-public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbReadRepository<T, R, S>{
-
+public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbReadRepository<T, R, S>
+        implements DisposableBean {
 
+    private volatile DDbWriteBehindBuffer<T> writeBehindBuffer;
+    private final DDbWriteBehind writeBehind;
+    final DDbVersioning<T> versioning;
 
     public DDbCrudRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
         super(dynamoDbEnhancedClient);
+        versioning = DDbVersioning.of(entityClass);
+        writeBehind = writeBehind();
     }
     public DDbCrudRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient, boolean consistentRead) {
         super(dynamoDbEnhancedClient, consistentRead);
+        versioning = DDbVersioning.of(entityClass);
+        writeBehind = writeBehind();
+    }
+
+    @Override
+    List<DDbAccessPath> baseAccessPaths() {
+        String put = null == versioning ? "PutItem" : "PutItem conditional on the version";
+        String save = null == writeBehind ? put : "BatchWriteItem on flush";
+        List<DDbAccessPath> accessPaths = new ArrayList<>(super.baseAccessPaths());
+        accessPaths.add(new DDbAccessPath("save", save));
+        accessPaths.add(new DDbAccessPath("saveChanges", null == snapshots ? save : "UpdateItem of the changes"));
+        if (null != writeBehind) {
+            accessPaths.add(new DDbAccessPath("flush", "BatchWriteItem"));
+        }
+        accessPaths.add(new DDbAccessPath("update", "UpdateItem"));
+        if (null != versioning) {
+            accessPaths.add(new DDbAccessPath("readModifyWrite", "GetItem, consistent, " + put));
+        }
+        accessPaths.add(new DDbAccessPath("delete(entity)",
+                null == versioning ? "DeleteItem" : "DeleteItem conditional on the version"));
+        accessPaths.add(new DDbAccessPath("delete(key)", "DeleteItem"));
+        String scan = scanOperation(settings.getScan().getParallelism(), false);
+        if (null == versioning) {
+            accessPaths.add(new DDbAccessPath("saveAll", "BatchWriteItem"));
+            accessPaths.add(new DDbAccessPath("delete(entities)", "BatchWriteItem"));
+            accessPaths.add(new DDbAccessPath("delete()", scan + " of the keys, BatchWriteItem"));
+        } else {
+            accessPaths.add(new DDbAccessPath("saveAll", put + " per entity"));
+            accessPaths.add(new DDbAccessPath("delete(entities)", "DeleteItem conditional on the version per entity"));
+            accessPaths.add(new DDbAccessPath("delete()",
+                    scan + " of the keys and versions, DeleteItem conditional on the version per item"));
+        }
+        return accessPaths;
     }
 
 
@@ -34,15 +96,135 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * }
      * </pre>
      *
+     * With {@link DDbWriteBehind} the entity is only buffered and written later, see {@link #flush()}.
+     * <br><br/>
+     * If the entity has a version attribute, annotated with DynamoDbVersionAttribute or jakarta.persistence.Version,
+     * the item is only written if the stored version still matches the entity's version and the entity receives the
+     * incremented version. DDbOptimisticLockException is thrown otherwise.
+     *
      * @param entity to be inserted into or overwritten in the database table.
      */
     public void save(@NotNull T entity) {
-        table.putItem(entity);
+        run("save", () -> {
+            DDbWriteBehindBuffer<T> buffer = writeBehindBuffer();
+            if (null != buffer) {
+                buffer.put(entity);
+                return;
+            }
+            Key key = table.keyFrom(entity);
+            if (null == versioning) {
+                table.putItem(entity);
+            } else {
+                putVersioned(key, entity);
+            }
+            invalidateCache(key);
+            if (null != snapshots) {
+                snapshots.capture(key, entity);
+            }
+        });
+    }
+
+    /**
+     * Saves only what changed since the entity was loaded by findBy or last saved. Needs
+     * aws.dynamodb.dirty-tracking.enabled, the snapshot taken at load time is diffed against the entity and the
+     * changed attributes are sent in a single UpdateItem call. Nothing is sent if nothing changed. Entities without
+     * a snapshot, for example new ones or ones loaded too long ago, are written in full like {@link #save(DDbEntity)}.
+     * NoSuchElementException is thrown if the item was deleted since it was loaded.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Customer customer = dynamoDbRepository.findBy("partitionKey").orElseThrow();
+     * customer.setStatus("ACTIVE");
+     * dynamoDbRepository.saveChanges(customer);
+     * }
+     * </pre>
+     *
+     * @param entity to be saved.
+     * @return true if anything was written.
+     */
+    public boolean saveChanges(@NotNull T entity) {
+        return call("saveChanges", () -> {
+            Key key = table.keyFrom(entity);
+            Map<String, AttributeValue> snapshot = null == snapshots ? null : snapshots.get(key);
+            if (null == snapshot) {
+                save(entity);
+                return true;
+            }
+            Map<String, AttributeValue> current = snapshots.attributes(entity);
+            Set<String> untracked = new HashSet<>(table.tableSchema().tableMetadata().primaryKeys());
+            if (null != versioning) {
+                untracked.add(versioning.attributeName());
+            }
+            UpdateSpec changes = new UpdateSpec();
+            current.forEach((attribute, value) -> {
+                if (!untracked.contains(attribute) && !value.equals(snapshot.get(attribute))) {
+                    changes.set(attribute, value);
+                }
+            });
+            snapshot.keySet().stream()
+                    .filter(attribute -> !untracked.contains(attribute) && !current.containsKey(attribute))
+                    .forEach(changes::remove);
+            if (changes.isEmpty()) {
+                return false;
+            }
+            Supplier<NoSuchElementException> notFound = () -> new NoSuchElementException("""
+                    No %s found matching the key %s""".formatted(entityClassName, key));
+            if (null == versioning) {
+                updateExisting(key, changes, null, notFound);
+                snapshots.put(key, current);
+                return true;
+            }
+            Long version = versioning.current(entity);
+            changes.set(versioning.attributeName(),
+                    AttributeValue.fromN(String.valueOf(DDbVersioning.next(version))));
+            updateExisting(key, changes, versioning.expect(version), notFound);
+            versioning.set(entity, DDbVersioning.next(version));
+            snapshots.put(key, snapshots.attributes(entity));
+            return true;
+        });
+    }
+
+    /**
+     * Writes all the entities buffered by save of a {@link DDbWriteBehind} repository on the calling thread.
+     * Does nothing for other repositories.
+     */
+    public void flush() {
+        run("flush", () -> {
+            DDbWriteBehindBuffer<T> buffer = writeBehindBuffer();
+            if (null != buffer) {
+                buffer.flush();
+            }
+        });
+    }
+
+    /**
+     * @return statistics of the write-behind buffer, empty if the repository is not annotated with
+     * {@link DDbWriteBehind}.
+     */
+    public Optional<DDbWriteBehindStats> writeBehindStats() {
+        return Optional.ofNullable(writeBehindBuffer()).map(DDbWriteBehindBuffer::stats);
+    }
+
+    /**
+     * Drains the write-behind buffer when the Spring context shuts down.
+     */
+    @Override
+    public void destroy() {
+        if (null != writeBehindBuffer) {
+            writeBehindBuffer.close();
+        }
     }
 
     /**
      * Puts all the supplied items in the mapped table. If the table contains an item with the same primary key, it will be
-     * replaced with this item.
+     * replaced with this item. Items are sent through BatchWriteItem in chunks of 25, unprocessed items are retried
+     * with exponential backoff as configured under aws.dynamodb.batch.
+     * <br><br/>
+     * BatchWriteItem cannot check versions, entities with a version attribute are put one by one like
+     * {@link #save(DDbEntity)}. DDbOptimisticLockException is thrown on the first stale entity, the entities before
+     * it stay written.
      * <br><br/>
      * Example:
      * <pre>
@@ -56,11 +238,217 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * </pre>
      *
      * @param entities Iterable of entities.
+     * @return result listing the items that could not be written.
+     */
+    public DDbBatchWriteResult<T> saveAll(@NotNull Iterable<T> entities) {
+        return call("saveAll", () -> {
+            if (null != versioning) {
+                return writeEach(entities, this::save);
+            }
+            discardBuffered(entities);
+            DDbBatchWriteResult<T> result = batchWriter().put(entities);
+            invalidateCache(entities);
+            return result;
+        });
+    }
+
+
+    /**
+     * Applies a partial update to the item matching the partitionKey in a single UpdateItem call. Only the
+     * attributes named in the update are sent, the rest of the item is left untouched. NoSuchElementException is
+     * thrown if no matching entity is found, the update never creates an item.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.update("partitionKey", update -> update
+     *         .set("status", "ACTIVE")
+     *         .increment("loginCount", 1));
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entity.
+     * @param update       A {@link Consumer} of {@link UpdateSpec} describing the changes.
+     */
+    public void update(@NotNull R partitionKey, @NotNull Consumer<UpdateSpec> update) {
+        requireNoSortKey("update(partitionKey, update)");
+        run("update", () -> updateExisting(getKey(partitionKey), update, () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s""".formatted(entityClassName, partitionKey))));
+    }
+
+    /**
+     * Applies a partial update to the item matching the partitionKey and sortKey in a single UpdateItem call.
+     * NoSuchElementException is thrown if no matching entity is found.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.update("partitionKey", "sortKey", update -> update.remove("discount"));
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @param update       A {@link Consumer} of {@link UpdateSpec} describing the changes.
+     */
+    public void update(@NotNull R partitionKey, @NotNull S sortKey, @NotNull Consumer<UpdateSpec> update) {
+        requireSortKey("update(partitionKey, sortKey, update)");
+        run("update", () -> updateExisting(getKey(partitionKey, sortKey), update, () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s and sortKey %s
+                """.formatted(entityClassName, partitionKey, sortKey))));
+    }
+
+    private void updateExisting(Key key, Consumer<UpdateSpec> update, Supplier<NoSuchElementException> notFound) {
+        UpdateSpec spec = new UpdateSpec();
+        update.accept(spec);
+        if (spec.isEmpty()) {
+            return;
+        }
+        if (null != versioning) {
+            // Writers holding the previous version must fail their conditional save after this update
+            spec.increment(versioning.attributeName(), 1);
+        }
+        updateExisting(key, spec, null, notFound);
+    }
+
+    /**
+     * Sends the update conditional on the item existing and, if given, on the additional condition. A failed
+     * additional condition on an existing item is reported as DDbOptimisticLockException.
+     */
+    private void updateExisting(Key key, UpdateSpec spec, Expression condition,
+                                Supplier<NoSuchElementException> notFound) {
+        DDbUpdateExpression expression = DDbUpdateExpression.of(spec, table.tableSchema());
+        Expression itemExists = Expression.builder()
+                .expression("attribute_exists(#u_pk)")
+                .putExpressionName("#u_pk", table.tableSchema().tableMetadata().primaryPartitionKey())
+                .build();
+        Expression fullCondition = null == condition ? itemExists : Expression.join(Expression.AND, itemExists, condition);
+        Map<String, String> names = new HashMap<>(expression.names());
+        names.putAll(fullCondition.expressionNames());
+        Map<String, AttributeValue> values = new HashMap<>(expression.values());
+        if (null != fullCondition.expressionValues()) {
+            values.putAll(fullCondition.expressionValues());
+        }
+        // A buffered save landing after the update would silently revert it
+        flush();
+        try {
+            dynamoDbClient().updateItem(r -> r
+                    .tableName(table.tableName())
+                    .key(key.keyMap(table.tableSchema(), TableMetadata.primaryIndexName()))
+                    .updateExpression(expression.expression())
+                    .conditionExpression(fullCondition.expression())
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values.isEmpty() ? null : values)
+                    .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD));
+        } catch (ConditionalCheckFailedException e) {
+            if (null != condition && e.hasItem() && !e.item().isEmpty()) {
+                throw optimisticLockFailure(key, e);
+            }
+            throw notFound.get();
+        } finally {
+            invalidateCache(key);
+        }
+    }
+
+    /**
+     * Puts a versioned entity conditional on the stored version and stores the incremented version in the entity.
+     */
+    private void putVersioned(Key key, T entity) {
+        Long version = versioning.current(entity);
+        try {
+            if (versioning.handledByExtension()) {
+                table.putItem(entity);
+            } else {
+                versioning.set(entity, DDbVersioning.next(version));
+                table.putItem(r -> r.item(entity).conditionExpression(versioning.expect(version)));
+            }
+        } catch (ConditionalCheckFailedException e) {
+            versioning.set(entity, version);
+            invalidateCache(key);
+            throw optimisticLockFailure(key, e);
+        }
+        versioning.set(entity, DDbVersioning.next(version));
+    }
+
+    private DDbOptimisticLockException optimisticLockFailure(Key key, ConditionalCheckFailedException cause) {
+        return new DDbOptimisticLockException("""
+                %s with key %s was changed or removed by someone else since it was read.""".formatted(
+                entityClassName, key), cause);
+    }
+
+    /**
+     * Loads the entity matching the partitionKey with a consistent read, applies the modification and saves it.
+     * If someone else wrote the item in between, the save fails on the version attribute and the whole cycle is
+     * repeated with exponential backoff as configured under aws.dynamodb.optimistic-lock. Requires a version
+     * attribute on the entity.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Account account = dynamoDbRepository.readModifyWrite("accountId",
+     *         account -> account.setBalance(account.getBalance() + 10));
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entity.
+     * @param modification applied to the freshly loaded entity, may run more than once.
+     * @return the saved entity.
+     */
+    public T readModifyWrite(@NotNull R partitionKey, @NotNull Consumer<T> modification) {
+        requireNoSortKey("readModifyWrite(partitionKey, modification)");
+        return call("readModifyWrite", () -> readModifyWrite(getKey(partitionKey), modification, () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s""".formatted(entityClassName, partitionKey))));
+    }
+
+    /**
+     * Loads the entity matching the partitionKey and sortKey with a consistent read, applies the modification and
+     * saves it, retrying on optimistic lock conflicts. Requires a version attribute on the entity.
+     *
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @param modification applied to the freshly loaded entity, may run more than once.
+     * @return the saved entity.
      */
-    public void saveAll(@NotNull Iterable<T> entities) {
-        entities.forEach(table::putItem);
+    public T readModifyWrite(@NotNull R partitionKey, @NotNull S sortKey, @NotNull Consumer<T> modification) {
+        requireSortKey("readModifyWrite(partitionKey, sortKey, modification)");
+        return call("readModifyWrite", () -> readModifyWrite(getKey(partitionKey, sortKey), modification, () ->
+                new NoSuchElementException("""
+                        No %s found matching the partitionKey %s and sortKey %s
+                """.formatted(entityClassName, partitionKey, sortKey))));
     }
 
+    private T readModifyWrite(Key key, Consumer<T> modification, Supplier<NoSuchElementException> notFound) {
+        if (null == versioning) {
+            throw new DDbRepoException("readModifyWrite needs a version attribute in the entity class %s."
+                    .formatted(entityClassName),
+                    """
+                            Annotate the get method of an Integer or Long attribute with DynamoDbVersionAttribute
+                            or jakarta.persistence.Version.
+                            """);
+        }
+        DDbBackoff backoff = DDbBackoff.of(settings.getOptimisticLock());
+        for (int attempt = 0; ; attempt++) {
+            // Bypasses the near cache, the write is only accepted against the latest version
+            T entity = Optional.ofNullable(table.getItem(r -> r.key(key).consistentRead(true))).orElseThrow(notFound);
+            modification.accept(entity);
+            try {
+                save(entity);
+                return entity;
+            } catch (DDbOptimisticLockException e) {
+                if (!backoff.canRetry(attempt)) {
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict on {} {}, retrying.", entityClassName, key);
+                backoff.pause(attempt);
+            }
+        }
+    }
 
     /**
      * Deletes a single item from the mapped table.
@@ -76,12 +464,28 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * @param entity to be deleted from the database table.
      */
     public void delete(@NotNull T entity) {
-        table.deleteItem(entity);
+        run("delete", () -> {
+            Key key = table.keyFrom(entity);
+            discardBuffered(key);
+            try {
+                if (null == versioning) {
+                    table.deleteItem(entity);
+                } else {
+                    table.deleteItem(r -> r.key(key)
+                            .conditionExpression(versioning.expect(versioning.current(entity))));
+                }
+            } catch (ConditionalCheckFailedException e) {
+                throw optimisticLockFailure(key, e);
+            } finally {
+                invalidateCache(key);
+            }
+        });
     }
 
     /**
      * Deletes a single item from the mapped table matching the partitionKey.
-     * NoSuchElementException is thrown if no matching entity found.
+     * NoSuchElementException is thrown if no matching entity found. The item is deleted in a single
+     * conditional DeleteItem call without reading it first.
      * <br><br/>
      * Example:
      * <pre>
@@ -94,15 +498,16 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * @param partitionKey of the entity.
      */
     public void delete(@NotNull R partitionKey) {
-        T entity = findBy(partitionKey).orElseThrow(() ->
+        requireNoSortKey("delete(partitionKey)");
+        run("delete", () -> deleteExisting(getKey(partitionKey), () ->
                 new NoSuchElementException("""
-                        No %s found matching the partitionKey %s""".formatted(entityClassName, partitionKey)));
-        table.deleteItem(entity);
+                        No %s found matching the partitionKey %s""".formatted(entityClassName, partitionKey))));
     }
 
     /**
      * Deletes a single item from the mapped table matching the partitionKey and sortKey.
-     * NoSuchElementException is thrown if no matching entity found.
+     * NoSuchElementException is thrown if no matching entity found. The item is deleted in a single
+     * conditional DeleteItem call without reading it first.
      * <br><br/>
      * Example:
      * <pre>
@@ -116,15 +521,37 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * @param sortKey of the entity.
      */
     public void delete(@NotNull R partitionKey, S sortKey) {
-        T entity = findBy(partitionKey, sortKey).orElseThrow(() ->
+        requireSortKey("delete(partitionKey, sortKey)");
+        run("delete", () -> deleteExisting(getKey(partitionKey, sortKey), () ->
                 new NoSuchElementException("""
                         No %s found matching the partitionKey %s and sortKey %s
-                """.formatted(entityClassName, partitionKey, sortKey)));
-        table.deleteItem(entity);
+                """.formatted(entityClassName, partitionKey, sortKey))));
     }
 
     /**
-     * Deletes all the items from the mapped table.
+     * Deletes the item with a condition on the partition key attribute so a missing item is reported by
+     * DynamoDB instead of being looked up beforehand.
+     */
+    private void deleteExisting(Key key, Supplier<NoSuchElementException> notFound) {
+        Expression itemExists = Expression.builder()
+                .expression("attribute_exists(#pk)")
+                .putExpressionName("#pk", table.tableSchema().tableMetadata().primaryPartitionKey())
+                .build();
+        discardBuffered(key);
+        try {
+            table.deleteItem(r -> r.key(key).conditionExpression(itemExists));
+        } catch (ConditionalCheckFailedException e) {
+            throw notFound.get();
+        } finally {
+            invalidateCache(key);
+        }
+    }
+
+    /**
+     * Deletes all the items from the mapped table. Only the key attributes are scanned, in parallel segments when
+     * aws.dynamodb.scan.parallelism is above 1, and the items are deleted through BatchWriteItem. Entities with a
+     * version attribute are scanned with their version and deleted one by one conditional on it, like
+     * {@link #delete(DDbEntity)}.
      * <br><br/>
      * Example:
      * <pre>
@@ -134,13 +561,32 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * }
      * </pre>
      *
+     * @return result listing the items that could not be deleted.
      */
-    public void delete() {
-        findAll().forEach(table::deleteItem);
+    public DDbBatchWriteResult<T> delete() {
+        return call("delete", () -> {
+            if (null != writeBehindBuffer) {
+                writeBehindBuffer.discardAll();
+            }
+            List<String> keyAttributes = new ArrayList<>(table.tableSchema().tableMetadata().primaryKeys());
+            if (null != versioning) {
+                keyAttributes.add(versioning.attributeName());
+            }
+            try (Stream<T> keys = scanAll("delete", r -> r.attributesToProject(keyAttributes))) {
+                return null == versioning
+                        ? batchWriter().delete(keys::iterator)
+                        : writeEach(keys::iterator, this::delete);
+            } finally {
+                invalidateCache();
+            }
+        });
     }
 
     /**
-     * Deletes all the supplied items from the mapped table.
+     * Deletes all the supplied items from the mapped table. Items are sent through BatchWriteItem in chunks of 25,
+     * unprocessed items are retried with exponential backoff as configured under aws.dynamodb.batch. Entities with a
+     * version attribute are deleted one by one like {@link #delete(DDbEntity)}, DDbOptimisticLockException is thrown
+     * on the first stale entity.
      * <br><br/>
      * Example:
      * <pre>
@@ -154,9 +600,84 @@ public abstract class DDbCrudRepository<T extends DDbEntity, R, S> extends DDbRe
      * </pre>
      *
      * @param entities Iterable of entities
+     * @return result listing the items that could not be deleted.
+     */
+    public DDbBatchWriteResult<T> delete(@NotNull Iterable<T> entities) {
+        return call("delete", () -> {
+            if (null != versioning) {
+                return writeEach(entities, this::delete);
+            }
+            discardBuffered(entities);
+            DDbBatchWriteResult<T> result = batchWriter().delete(entities);
+            invalidateCache(entities);
+            return result;
+        });
+    }
+
+    /**
+     * Writes versioned entities one at a time, BatchWriteItem cannot carry the condition on the version.
+     */
+    private DDbBatchWriteResult<T> writeEach(Iterable<T> entities, Consumer<T> write) {
+        int processed = 0;
+        for (T entity : entities) {
+            write.accept(entity);
+            processed++;
+        }
+        return new DDbBatchWriteResult<>(processed, List.of());
+    }
+
+    /**
+     * Created on first use so the aws.dynamodb.write-behind.* settings injected after construction apply.
+     */
+    private DDbWriteBehind writeBehind() {
+        DDbWriteBehind annotation = getClass().getAnnotation(DDbWriteBehind.class);
+        if (null != annotation && null != versioning) {
+            throw new DDbRepoException("%s cannot combine DDbWriteBehind with the version attribute of %s."
+                    .formatted(getClass().getSimpleName(), entityClassName),
+                    """
+                            Buffered saves are written through BatchWriteItem, which cannot check versions.
+                            Remove DDbWriteBehind or the version attribute.
+                            """);
+        }
+        return annotation;
+    }
+
+    /**
+     * The buffer is created on first use so it picks up the aws.dynamodb.* settings applied after construction.
      */
-    public void delete(@NotNull Iterable<T> entities) {
-        entities.forEach(table::deleteItem);
+    private DDbWriteBehindBuffer<T> writeBehindBuffer() {
+        if (null == writeBehind) {
+            return null;
+        }
+        if (null == writeBehindBuffer) {
+            synchronized (this) {
+                if (null == writeBehindBuffer) {
+                    writeBehindBuffer = DDbWriteBehindBuffer.of(writeBehind, settings.getWriteBehind(),
+                            settings.getBatch(), table.tableName(), table::keyFrom,
+                            entities -> call("flush", () -> batchWriter().put(entities)), this::invalidateCache);
+                }
+            }
+        }
+        return writeBehindBuffer;
+    }
+
+    /**
+     * Removes buffered saves of the keys about to be written directly, so a later flush cannot overwrite them.
+     */
+    void discardBuffered(Key key) {
+        if (null != writeBehindBuffer) {
+            writeBehindBuffer.discard(key);
+        }
+    }
+
+    private void discardBuffered(Iterable<T> entities) {
+        if (null != writeBehindBuffer) {
+            entities.forEach(entity -> writeBehindBuffer.discard(table.keyFrom(entity)));
+        }
+    }
+
+    DDbBatchWriter<T> batchWriter() {
+        return new DDbBatchWriter<>(dynamoDbEnhancedClient, table, entityClass, DDbBackoff.of(settings.getBatch()));
     }
 
 
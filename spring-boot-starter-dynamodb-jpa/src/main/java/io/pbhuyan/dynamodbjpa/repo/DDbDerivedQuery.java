@@ -0,0 +1,530 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.beans.Introspector;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Query derived from the name of an interface method such as findByStatusAndCreatedAtAfter. The name is parsed
+ * once, when the queries are created, into the cheapest access path: GetItem when the whole primary key is
+ * matched, a Query on the table or on a secondary index when a partition key is matched, and a Scan only as the
+ * last resort, subject to aws.dynamodb.scan.policy and run like findAll with the parallelism and read capacity
+ * budget of aws.dynamodb.scan. The filter expression and its placeholders are built at the same time, along with
+ * the conversion of each argument checked against the parameter type, a call only converts the arguments.
+ * <p>
+ * Supported are the prefixes find and stream, optionally First or TopN, criteria joined by And with the operators
+ * Is, Equals, Not, LessThan, LessThanEqual, Before, GreaterThan, GreaterThanEqual, After, Between, StartingWith,
+ * StartsWith, BeginsWith, Containing, Contains, NotContaining, IsNull, Null, IsNotNull and NotNull, and a trailing
+ * OrderBy on the sort key of the access path with Asc or Desc.
+ *
+ * @param <T> entity type.
+ */
+@Slf4j
+class DDbDerivedQuery<T extends DDbEntity> {
+    private static final Pattern METHOD = Pattern.compile(
+            "^(find|stream)(?:All)?(?:(First|Top)(\\d*))?By(.+?)(?:OrderBy([A-Z]\\w*?)(Asc|Desc)?)?$");
+    private static final Pattern AND = Pattern.compile("And(?=[A-Z])");
+
+    private final String operation;
+    private final DDbReadRepository<T, ?, ?> repository;
+    private final Path path;
+    private final String indexName;
+    private final Criterion partitionKey;
+    private final Criterion sortKey;
+    private final List<Criterion> filters;
+    private final String filterExpression;
+    private final Map<String, String> filterNames;
+    private final Boolean scanIndexForward;
+    private final int limit;
+    private final Result result;
+    private final DynamoDbTable<?> target;
+    private final boolean projected;
+
+    private DDbDerivedQuery(String operation, DDbReadRepository<T, ?, ?> repository, Path path, String indexName,
+                            Criterion partitionKey, Criterion sortKey, List<Criterion> filters,
+                            Boolean scanIndexForward, int limit, Result result, DynamoDbTable<?> target,
+                            boolean projected) {
+        this.operation = operation;
+        this.repository = repository;
+        this.path = path;
+        this.indexName = indexName;
+        this.partitionKey = partitionKey;
+        this.sortKey = sortKey;
+        this.filters = List.copyOf(filters);
+        this.scanIndexForward = scanIndexForward;
+        this.limit = limit;
+        this.result = result;
+        this.target = target;
+        this.projected = projected;
+        StringJoiner expression = new StringJoiner(" AND ");
+        Map<String, String> names = new LinkedHashMap<>();
+        for (Criterion filter : filters) {
+            names.put(filter.name(), filter.attribute());
+            expression.add(filter.operator().template.formatted(filter.name(), filter.value(), filter.value() + "_to"));
+        }
+        this.filterExpression = filters.isEmpty() ? null : expression.toString();
+        this.filterNames = names;
+    }
+
+    static <T extends DDbEntity> DDbDerivedQuery<T> parse(Method method, DDbReadRepository<T, ?, ?> repository) {
+        String operation = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Matcher matcher = METHOD.matcher(method.getName());
+        if (!matcher.matches()) {
+            throw invalid(operation, "does not follow the find...By or stream...By naming pattern.");
+        }
+        int limit = null == matcher.group(2) ? 0
+                : matcher.group(3).isEmpty() ? 1 : Integer.parseInt(matcher.group(3));
+
+        TableSchema<T> tableSchema = repository.table.tableSchema();
+        List<Class<?>> parameterTypes = List.of(method.getParameterTypes());
+        List<Criterion> criteria = new ArrayList<>();
+        int parameter = 0;
+        for (String part : AND.split(matcher.group(4))) {
+            Operator matched = Operator.match(part);
+            String property = part.substring(0, part.length() - matched.suffix.length());
+            String attribute = attribute(operation, tableSchema, property);
+            Operator operator = matched.canonical();
+            int index = criteria.size();
+            List<Class<?>> operandTypes = parameterTypes.subList(Math.min(parameter, parameterTypes.size()),
+                    Math.min(parameter + operator.arity, parameterTypes.size()));
+            criteria.add(new Criterion(attribute, operator, parameter, "#q" + index, ":q" + index,
+                    converter(operation, tableSchema, attribute, operator, operandTypes)));
+            parameter += operator.arity;
+        }
+        if (parameter != method.getParameterCount()) {
+            throw invalid(operation, "needs %d parameters for its criteria but declares %d."
+                    .formatted(parameter, method.getParameterCount()));
+        }
+
+        Type returnType = method.getGenericReturnType();
+        Result result = Result.of(method.getReturnType());
+        if ("stream".equals(matcher.group(1)) && result != Result.STREAM) {
+            throw invalid(operation, "has to return a Stream.");
+        }
+        Class<?> elementType = result.elementType(returnType);
+        boolean projected = elementType != repository.entityClass;
+        if (projected && !elementType.isRecord() && !elementType.isInterface()) {
+            throw invalid(operation, "returns %s which is neither %s nor a record or interface projection."
+                    .formatted(elementType.getSimpleName(), repository.entityClassName));
+        }
+        DynamoDbTable<?> target = projected ? repository.projectionTable(elementType) : repository.table;
+
+        TableMetadata metadata = tableSchema.tableMetadata();
+        String orderBy = null == matcher.group(5) ? null : attribute(operation, tableSchema, matcher.group(5));
+        Boolean scanIndexForward = null == orderBy ? null : !"Desc".equals(matcher.group(6));
+
+        // The table wins a tie, it is the only candidate that can be served by GetItem
+        List<DDbIndex> candidates = new ArrayList<>();
+        candidates.add(new DDbIndex(null, metadata.primaryPartitionKey(), metadata.primarySortKey().orElse(null),
+                false));
+        candidates.addAll(repository.indices.values());
+        DDbIndex best = candidates.stream()
+                .filter(candidate -> null != find(criteria, candidate.partitionKey(), true))
+                .reduce((a, b) -> score(criteria, orderBy, b) > score(criteria, orderBy, a) ? b : a)
+                .orElse(null);
+        if (null != best) {
+            Criterion partitionKey = find(criteria, best.partitionKey(), true);
+            Criterion sortKey = find(criteria, best.sortKey(), false);
+            List<Criterion> filters = without(criteria, partitionKey, sortKey);
+            requireNoKeyFilter(operation, filters, best.partitionKey(), best.sortKey());
+            requireOrderBySortKey(operation, orderBy, best.sortKey());
+            Path path = Path.QUERY_INDEX;
+            if (null == best.name()) {
+                boolean wholeKey = !best.hasSortKey() || (null != sortKey && sortKey.operator() == Operator.EQ);
+                path = wholeKey && filters.isEmpty() && !projected ? Path.GET_ITEM : Path.QUERY;
+            }
+            return new DDbDerivedQuery<>(operation, repository, path, best.name(),
+                    keyParameter(operation, method, partitionKey), keyParameter(operation, method, sortKey),
+                    filters, scanIndexForward, limit, result, target, projected);
+        }
+
+        if (null != orderBy) {
+            throw invalid(operation, "orders by %s but is served by a Scan, which returns items unordered."
+                    .formatted(orderBy));
+        }
+        log.warn("{} matches no partition key of {} or its indices and is served by a full table Scan.",
+                operation, repository.table.tableName());
+        return new DDbDerivedQuery<>(operation, repository, Path.SCAN, null, null, null, criteria, null, limit,
+                result, target, projected);
+    }
+
+    /**
+     * @return operation serving the query under the current settings of the repository.
+     */
+    DDbAccessPath accessPath() {
+        return new DDbAccessPath(operation, switch (path) {
+            case GET_ITEM -> repository.lookupOperation();
+            case QUERY -> repository.queryOperation(null, projected);
+            case QUERY_INDEX -> repository.queryOperation(indexName, projected);
+            case SCAN -> repository.scanOperation(repository.settings.getScan().getParallelism(),
+                    repository.consistentRead);
+        });
+    }
+
+    Object execute(Object[] args) {
+        Stream<?> items = switch (path) {
+            case GET_ITEM -> repository.getItem(key(args)).stream();
+            case QUERY -> repository.query(target, args[partitionKey.parameter()], sortKeyCondition(args),
+                    queryRequest(args)).items().stream();
+            case QUERY_INDEX -> repository.queryIndex(target, indexName, args[partitionKey.parameter()],
+                    sortKeyCondition(args), queryRequest(args)).items().stream();
+            case SCAN -> repository.scanAll(target, operation, scanRequest(args));
+        };
+        if (limit > 0) {
+            items = items.limit(limit);
+        }
+        if (result == Result.STREAM) {
+            return items;
+        }
+        // Closing stops the segment workers of a parallel scan that was not read to the end
+        try (Stream<?> consumed = items) {
+            return switch (result) {
+                case LIST -> consumed.toList();
+                case OPTIONAL -> single(consumed);
+                default -> single(consumed).orElse(null);
+            };
+        }
+    }
+
+    private Optional<?> single(Stream<?> items) {
+        List<?> found = items.limit(2).toList();
+        if (found.size() > 1) {
+            throw new DDbException("%s expected at most one result but found several.".formatted(operation));
+        }
+        return found.stream().findFirst();
+    }
+
+    private Key key(Object[] args) {
+        Key.Builder key = Key.builder().partitionValue(
+                repository.getKeyAttributeValue(required(args, partitionKey.parameter())));
+        if (null != sortKey) {
+            key.sortValue(repository.getKeyAttributeValue(required(args, sortKey.parameter())));
+        }
+        return key.build();
+    }
+
+    private SortKeyCondition<?> sortKeyCondition(Object[] args) {
+        if (null == sortKey) {
+            return null;
+        }
+        return new SortKeyCondition<>(sortKey.operator().keyOperator, required(args, sortKey.parameter()),
+                sortKey.operator() == Operator.BETWEEN ? required(args, sortKey.parameter() + 1) : null);
+    }
+
+    private Consumer<QueryEnhancedRequest.Builder> queryRequest(Object[] args) {
+        return r -> {
+            if (null != filterExpression) {
+                r.filterExpression(filter(args));
+            } else if (limit > 0) {
+                r.limit(limit);
+            }
+            if (null != scanIndexForward) {
+                r.scanIndexForward(scanIndexForward);
+            }
+            if (projected) {
+                r.attributesToProject(target.tableSchema().attributeNames());
+            }
+        };
+    }
+
+    private Consumer<ScanEnhancedRequest.Builder> scanRequest(Object[] args) {
+        return r -> {
+            r.filterExpression(filter(args)).consistentRead(repository.consistentRead);
+            if (projected) {
+                r.attributesToProject(target.tableSchema().attributeNames());
+            }
+        };
+    }
+
+    private Expression filter(Object[] args) {
+        Map<String, AttributeValue> values = new HashMap<>();
+        for (Criterion filter : filters) {
+            if (filter.operator().arity > 0) {
+                values.put(filter.value(), filter.converter().apply(required(args, filter.parameter())));
+            }
+            if (filter.operator() == Operator.BETWEEN) {
+                values.put(filter.value() + "_to", filter.converter().apply(required(args, filter.parameter() + 1)));
+            }
+        }
+        return Expression.builder()
+                .expression(filterExpression)
+                .expressionNames(filterNames)
+                .expressionValues(values.isEmpty() ? null : values)
+                .build();
+    }
+
+    private Object required(Object[] args, int parameter) {
+        Object value = args[parameter];
+        if (null == value) {
+            throw new IllegalArgumentException("Parameter %d of %s must not be null.".formatted(parameter, operation));
+        }
+        return value;
+    }
+
+    private static String attribute(String operation, TableSchema<?> tableSchema, String property) {
+        String attribute = Introspector.decapitalize(property);
+        if (tableSchema.attributeNames().contains(attribute)) {
+            return attribute;
+        }
+        String lowerFirst = property.isEmpty() ? property
+                : Character.toLowerCase(property.charAt(0)) + property.substring(1);
+        if (tableSchema.attributeNames().contains(lowerFirst)) {
+            return lowerFirst;
+        }
+        throw invalid(operation, "refers to %s which is not an attribute of %s."
+                .formatted(property, tableSchema.itemType().rawClass().getSimpleName()));
+    }
+
+    /**
+     * Picks the conversion of the arguments once, from the declared parameter types: the attribute converter for
+     * values of the attribute's type, the default converter of the argument for another number type compared
+     * against a number attribute. Any other type can never match and is rejected.
+     */
+    private static Function<Object, AttributeValue> converter(String operation, TableSchema<?> tableSchema,
+                                                              String attribute, Operator operator,
+                                                              List<Class<?>> operandTypes) {
+        if (operator == Operator.CONTAINS || operator == Operator.NOT_CONTAINING) {
+            // The operand is an element or substring, not a value of the attribute's type
+            return DDbUpdateExpression::defaultAttributeValue;
+        }
+        AttributeConverter<Object> converter =
+                (AttributeConverter<Object>) tableSchema.converterForAttribute(attribute);
+        Class<?> attributeType = ClassUtils.resolvePrimitiveIfNecessary(converter.type().rawClass());
+        Function<Object, AttributeValue> conversion = converter::transformFrom;
+        for (Class<?> operandType : operandTypes) {
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(operandType);
+            if (attributeType.isAssignableFrom(type)) {
+                continue;
+            }
+            if (!Number.class.isAssignableFrom(attributeType) || !Number.class.isAssignableFrom(type)) {
+                throw invalid(operation, "binds %s to the attribute %s of type %s.".formatted(
+                        type.getSimpleName(), attribute, attributeType.getSimpleName()));
+            }
+            conversion = DDbUpdateExpression::defaultAttributeValue;
+        }
+        return conversion;
+    }
+
+    /**
+     * @return first criterion on the attribute usable as a partition key (equality only) or sort key condition.
+     */
+    private static Criterion find(List<Criterion> criteria, String attribute, boolean partitionKey) {
+        if (null == attribute) {
+            return null;
+        }
+        return criteria.stream()
+                .filter(criterion -> criterion.attribute().equals(attribute))
+                .filter(criterion -> partitionKey ? criterion.operator() == Operator.EQ
+                        : null != criterion.operator().keyOperator)
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * @return how much of the work the key schema takes over: a sort key condition saves filtering, a matching
+     * OrderBy is only possible on the sort key.
+     */
+    private static int score(List<Criterion> criteria, String orderBy, DDbIndex candidate) {
+        int score = 0;
+        if (null != find(criteria, candidate.sortKey(), false)) {
+            score += 2;
+        }
+        if (null != orderBy && orderBy.equals(candidate.sortKey())) {
+            score += 1;
+        }
+        return score;
+    }
+
+    private static List<Criterion> without(List<Criterion> criteria, Criterion partitionKey, Criterion sortKey) {
+        return criteria.stream().filter(criterion -> criterion != partitionKey && criterion != sortKey).toList();
+    }
+
+    private static void requireNoKeyFilter(String operation, List<Criterion> filters, String partitionKey,
+                                           String sortKey) {
+        filters.stream()
+                .filter(filter -> filter.attribute().equals(partitionKey) || filter.attribute().equals(sortKey))
+                .findAny()
+                .ifPresent(filter -> {
+                    throw invalid(operation, "has a second condition on the key attribute %s, DynamoDB does not "
+                            .formatted(filter.attribute()) + "accept key attributes in a filter.");
+                });
+    }
+
+    private static void requireOrderBySortKey(String operation, String orderBy, String sortKey) {
+        if (null != orderBy && !orderBy.equals(sortKey)) {
+            throw invalid(operation, "orders by %s but results can only be ordered by the sort key %s."
+                    .formatted(orderBy, sortKey));
+        }
+    }
+
+    private static Criterion keyParameter(String operation, Method method, Criterion key) {
+        if (null == key) {
+            return null;
+        }
+        for (int parameter = key.parameter(); parameter < key.parameter() + key.operator().arity; parameter++) {
+            Class<?> type = box(method.getParameterTypes()[parameter]);
+            if (!DDbBaseRepository.ALLOWED_PARTITION_KEY_TYPES.contains(type)) {
+                throw invalid(operation, "binds %s to the key attribute %s, allowed key types are %s.".formatted(
+                        type.getSimpleName(), key.attribute(), DDbBaseRepository.ALLOWED_PARTITION_KEY_TYPES_STR));
+            }
+        }
+        return key;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return switch (type.getName()) {
+            case "int" -> Integer.class;
+            case "long" -> Long.class;
+            case "double" -> Double.class;
+            case "boolean" -> Boolean.class;
+            default -> type;
+        };
+    }
+
+    private static DDbRepoException invalid(String operation, String reason) {
+        return new DDbRepoException("Derived query %s %s".formatted(operation, reason),
+                """
+                        Name the method find[First|TopN]By<Attribute><Operator>[And...][OrderBy<SortKey>Asc|Desc]
+                        or stream...By..., with one parameter per operand in the order of the criteria.
+                        """);
+    }
+
+    private enum Path {
+        GET_ITEM, QUERY, QUERY_INDEX, SCAN
+    }
+
+    private enum Result {
+        ONE, OPTIONAL, LIST, STREAM;
+
+        static Result of(Class<?> returnType) {
+            if (returnType == Optional.class) {
+                return OPTIONAL;
+            }
+            if (returnType == Stream.class) {
+                return STREAM;
+            }
+            if (returnType == List.class || returnType == Collection.class || returnType == Iterable.class) {
+                return LIST;
+            }
+            return ONE;
+        }
+
+        Class<?> elementType(Type returnType) {
+            if (this == ONE) {
+                return (Class<?>) returnType;
+            }
+            if (returnType instanceof ParameterizedType parameterized
+                    && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+                return element;
+            }
+            throw new DDbRepoException("Derived query return type %s needs a concrete element type."
+                    .formatted(returnType.getTypeName()));
+        }
+    }
+
+    private enum Operator {
+        // Longer suffixes first so that IsNotNull is not taken for Null
+        IS_NOT_NULL("IsNotNull", 0, "attribute_exists(%1$s)", null),
+        NOT_NULL("NotNull", 0, "attribute_exists(%1$s)", null),
+        IS_NULL("IsNull", 0, "attribute_not_exists(%1$s)", null),
+        NULL("Null", 0, "attribute_not_exists(%1$s)", null),
+        GREATER_THAN_EQUAL("GreaterThanEqual", 1, "%s >= %s", SortKeyCondition.Operator.GREATER_THAN_OR_EQUAL_TO),
+        GREATER_THAN("GreaterThan", 1, "%s > %s", SortKeyCondition.Operator.GREATER_THAN),
+        LESS_THAN_EQUAL("LessThanEqual", 1, "%s <= %s", SortKeyCondition.Operator.LESS_THAN_OR_EQUAL_TO),
+        LESS_THAN("LessThan", 1, "%s < %s", SortKeyCondition.Operator.LESS_THAN),
+        AFTER("After", 1, "%s > %s", SortKeyCondition.Operator.GREATER_THAN),
+        BEFORE("Before", 1, "%s < %s", SortKeyCondition.Operator.LESS_THAN),
+        BETWEEN("Between", 2, "%s BETWEEN %s AND %s", SortKeyCondition.Operator.BETWEEN),
+        STARTING_WITH("StartingWith", 1, "begins_with(%s, %s)", SortKeyCondition.Operator.BEGINS_WITH),
+        STARTS_WITH("StartsWith", 1, "begins_with(%s, %s)", SortKeyCondition.Operator.BEGINS_WITH),
+        BEGINS_WITH("BeginsWith", 1, "begins_with(%s, %s)", SortKeyCondition.Operator.BEGINS_WITH),
+        NOT_CONTAINING("NotContaining", 1, "NOT contains(%s, %s)", null),
+        CONTAINING("Containing", 1, "contains(%s, %s)", null),
+        CONTAINS("Contains", 1, "contains(%s, %s)", null),
+        IS_NOT("IsNot", 1, "%s <> %s", null),
+        NE("Not", 1, "%s <> %s", null),
+        EQUALS("Equals", 1, "%s = %s", SortKeyCondition.Operator.EQUAL_TO),
+        IS("Is", 1, "%s = %s", SortKeyCondition.Operator.EQUAL_TO),
+        EQ("", 1, "%s = %s", SortKeyCondition.Operator.EQUAL_TO);
+
+        private final String suffix;
+        private final int arity;
+        private final String template;
+        private final SortKeyCondition.Operator keyOperator;
+
+        Operator(String suffix, int arity, String template, SortKeyCondition.Operator keyOperator) {
+            this.suffix = suffix;
+            this.arity = arity;
+            this.template = template;
+            this.keyOperator = keyOperator;
+        }
+
+        static Operator match(String part) {
+            for (Operator operator : values()) {
+                if (part.endsWith(operator.suffix) && part.length() > operator.suffix.length()) {
+                    return operator;
+                }
+            }
+            return EQ;
+        }
+
+        /**
+         * Synonyms share one constant so key and filter handling only deal with the canonical operators.
+         */
+        Operator canonical() {
+            return switch (this) {
+                case NOT_NULL -> IS_NOT_NULL;
+                case NULL -> IS_NULL;
+                case AFTER -> GREATER_THAN;
+                case BEFORE -> LESS_THAN;
+                case STARTS_WITH, BEGINS_WITH -> STARTING_WITH;
+                case CONTAINING -> CONTAINS;
+                case IS_NOT -> NE;
+                case EQUALS, IS -> EQ;
+                default -> this;
+            };
+        }
+    }
+
+    /**
+     * @param attribute name of the attribute in the table.
+     * @param operator  comparison.
+     * @param parameter index of the first method parameter bound to the operands.
+     * @param name      placeholder of the attribute name in the filter expression.
+     * @param value     placeholder of the operand in the filter expression.
+     * @param converter turns an argument into the attribute value compared against.
+     */
+    private record Criterion(String attribute, Operator operator, int parameter, String name, String value,
+                             Function<Object, AttributeValue> converter) {
+    }
+}
@@ -0,0 +1,42 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.KeyAttributeMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Secondary index declared on the entity with DynamoDbSecondaryPartitionKey and DynamoDbSecondarySortKey. A local
+ * index only declares a sort key and shares the partition key of the table.
+ *
+ * @param name         index name.
+ * @param partitionKey partition key attribute of the index.
+ * @param sortKey      sort key attribute of the index, null if it has none.
+ * @param global       true for a global secondary index, which does not support consistent reads.
+ */
+record DDbIndex(String name, String partitionKey, String sortKey, boolean global) {
+
+    /**
+     * @return secondary indices of the table by name, without the primary index.
+     */
+    static Map<String, DDbIndex> of(TableMetadata tableMetadata) {
+        Map<String, DDbIndex> indices = new LinkedHashMap<>();
+        for (IndexMetadata index : tableMetadata.indices()) {
+            if (TableMetadata.primaryIndexName().equals(index.name())) {
+                continue;
+            }
+            boolean global = index.partitionKey().isPresent();
+            indices.put(index.name(), new DDbIndex(index.name(),
+                    index.partitionKey().map(KeyAttributeMetadata::name).orElse(tableMetadata.primaryPartitionKey()),
+                    index.sortKey().map(KeyAttributeMetadata::name).orElse(null),
+                    global));
+        }
+        return indices;
+    }
+
+    boolean hasSortKey() {
+        return null != sortKey;
+    }
+}
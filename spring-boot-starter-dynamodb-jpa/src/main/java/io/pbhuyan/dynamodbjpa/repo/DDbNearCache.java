@@ -0,0 +1,100 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.model.DDbCacheStats;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single item lookups keyed by primary key. Backed by Caffeine, which evicts with
+ * W-TinyLFU so a burst of one-off keys does not push out the hot ones. Missing items are cached as empty
+ * Optionals unless cacheMissing is off. Concurrent lookups of the same key wait for a single load. The attributes
+ * of the item are cached rather than the entity, every lookup gets an entity of its own that it may modify without
+ * changing what other callers read.
+ *
+ * @param <T> entity type.
+ */
+class DDbNearCache<T> {
+    private final TableSchema<T> tableSchema;
+    private final Cache<Key, Optional<Map<String, AttributeValue>>> cache;
+    private final boolean cacheMissing;
+
+    private DDbNearCache(TableSchema<T> tableSchema, long maxSize, Duration expireAfterWrite, boolean cacheMissing) {
+        this.tableSchema = tableSchema;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.cacheMissing = cacheMissing;
+    }
+
+    /**
+     * @return the cache configured for the repository class, or null if the repository is not cached.
+     */
+    static <T> DDbNearCache<T> of(Class<?> repositoryClass, TableSchema<T> tableSchema,
+                                  DDbConfigurationProperty.Cache settings) {
+        DDbCache annotation = repositoryClass.getAnnotation(DDbCache.class);
+        if (null == annotation) {
+            return settings.isEnabled()
+                    ? new DDbNearCache<>(tableSchema, settings.getMaxSize(), settings.getExpireAfterWrite(),
+                    settings.isCacheMissing())
+                    : null;
+        }
+        long maxSize = annotation.maxSize() >= 0 ? annotation.maxSize() : settings.getMaxSize();
+        Duration expireAfterWrite = StringUtils.hasText(annotation.expireAfterWrite())
+                ? DurationStyle.detectAndParse(annotation.expireAfterWrite())
+                : settings.getExpireAfterWrite();
+        boolean cacheMissing = switch (annotation.cacheMissing()) {
+            case DEFAULT -> settings.isCacheMissing();
+            case TRUE -> true;
+            case FALSE -> false;
+        };
+        return new DDbNearCache<>(tableSchema, maxSize, expireAfterWrite, cacheMissing);
+    }
+
+    /**
+     * @param loader reading the attributes of the item on a miss.
+     * @return an entity of its own for the caller, empty if no item was found.
+     */
+    Optional<T> get(Key key, Function<Key, Optional<Map<String, AttributeValue>>> loader) {
+        // Caffeine does not store null, which is how a miss is kept out of the cache when cacheMissing is off
+        Optional<Map<String, AttributeValue>> attributes = cache.get(key, k -> {
+            Optional<Map<String, AttributeValue>> loaded = loader.apply(k);
+            return loaded.isPresent() || cacheMissing ? loaded : null;
+        });
+        return null == attributes ? Optional.empty() : attributes.map(tableSchema::mapToItem);
+    }
+
+    /**
+     * @return whether the cached lookup of the key found an item, null if the key is not cached.
+     */
+    Boolean isPresent(Key key) {
+        Optional<Map<String, AttributeValue>> attributes = cache.getIfPresent(key);
+        return null == attributes ? null : attributes.isPresent();
+    }
+
+    void invalidate(Key key) {
+        cache.invalidate(key);
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    DDbCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new DDbCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), cache.estimatedSize());
+    }
+}
@@ -0,0 +1,169 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import io.pbhuyan.dynamodbjpa.support.DDbCapacityBudget;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Scans a table in totalSegments segments, each one on its own virtual thread. Pages are handed over to the
+ * consuming thread through a small bounded queue, so at most a couple of pages per segment are held in memory
+ * and slow consumers throttle the segment workers. Consumed capacity of every page is charged against the
+ * optional read capacity budget shared by all segments.
+ * <p>
+ * The returned stream must be consumed fully or closed, closing it stops the segment workers. A worker that could
+ * not hand over a page for HANDOVER_TIMEOUT gives up, so an abandoned stream does not pin its segment threads.
+ *
+ * @param <T> entity type.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class DDbParallelScan<T> {
+    private static final Object SEGMENT_DONE = new Object();
+    private static final Duration HANDOVER_TIMEOUT = Duration.ofMinutes(5);
+
+    private final DynamoDbTable<T> table;
+    private final int totalSegments;
+    private final DDbCapacityBudget readCapacityBudget;
+
+    Stream<T> stream(Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        BlockingQueue<Object> pages = new ArrayBlockingQueue<>(totalSegments * 2);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int segment = 0; segment < totalSegments; segment++) {
+            int currentSegment = segment;
+            executor.submit(() -> {
+                scanSegment(currentSegment, requestConsumer, pages, cancelled);
+                return null;
+            });
+        }
+        executor.shutdown();
+        PageIterator iterator = new PageIterator(pages, executor, cancelled);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(iterator::cancel);
+    }
+
+    private void scanSegment(int segment, Consumer<ScanEnhancedRequest.Builder> requestConsumer,
+                             BlockingQueue<Object> pages, AtomicBoolean cancelled) throws InterruptedException {
+        try {
+            Iterable<Page<T>> segmentPages = table.scan(requestConsumer.andThen(r -> {
+                r.segment(segment).totalSegments(totalSegments);
+                if (readCapacityBudget.isLimited()) {
+                    r.returnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+                }
+            }));
+            for (Page<T> page : segmentPages) {
+                if (!handOver(pages, page.items(), cancelled)) {
+                    return;
+                }
+                ConsumedCapacity consumedCapacity = page.consumedCapacity();
+                if (null != consumedCapacity && null != consumedCapacity.capacityUnits()) {
+                    readCapacityBudget.consume(consumedCapacity.capacityUnits());
+                }
+            }
+            handOver(pages, SEGMENT_DONE, cancelled);
+        } catch (RuntimeException e) {
+            handOver(pages, e, cancelled);
+        }
+    }
+
+    /**
+     * @return false if the stream was closed, or its consumer did not take a page for HANDOVER_TIMEOUT.
+     */
+    private boolean handOver(BlockingQueue<Object> pages, Object page, AtomicBoolean cancelled)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + HANDOVER_TIMEOUT.toNanos();
+        while (!pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+            if (cancelled.get()) {
+                return false;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("Parallel scan of table {} was not consumed for {}, the segment workers stop.",
+                        table.tableName(), HANDOVER_TIMEOUT);
+                cancelled.set(true);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @RequiredArgsConstructor
+    private class PageIterator implements Iterator<T> {
+        private final BlockingQueue<Object> pages;
+        private final ExecutorService executor;
+        private final AtomicBoolean cancelled;
+        private Iterator<T> current = Collections.emptyIterator();
+        private int segmentsDone = 0;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (segmentsDone == totalSegments) {
+                    return false;
+                }
+                Object next = take();
+                if (next == SEGMENT_DONE) {
+                    segmentsDone++;
+                } else if (next instanceof RuntimeException e) {
+                    cancel();
+                    throw e;
+                } else {
+                    current = ((List<T>) next).iterator();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void cancel() {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+
+        private Object take() {
+            try {
+                Object next;
+                while (null == (next = pages.poll(100, TimeUnit.MILLISECONDS))) {
+                    if (executor.isTerminated() && pages.isEmpty()) {
+                        throw new DDbException("Parallel scan of table %s stopped before all segments completed."
+                                .formatted(table.tableName()));
+                    }
+                }
+                return next;
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new DDbException("Interrupted during parallel scan of table %s.".formatted(table.tableName()));
+            }
+        }
+    }
+}
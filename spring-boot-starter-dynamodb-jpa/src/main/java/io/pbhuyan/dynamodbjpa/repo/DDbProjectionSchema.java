@@ -0,0 +1,253 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.beans.Introspector;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only table schema of a projection type, a record or an interface of get methods, whose components name
+ * attributes of the entity. Only these attributes are requested through ProjectionExpression and each one is
+ * converted with the converter of the entity attribute, the full entity bean is never built. The key metadata is
+ * the entity's, so queries, indices and pagination work as they do for the entity.
+ *
+ * @param <P> projection type.
+ */
+class DDbProjectionSchema<P> implements TableSchema<P> {
+    private final Class<P> type;
+    private final TableSchema<?> entitySchema;
+    private final List<String> attributeNames;
+    private final List<AttributeConverter<?>> converters;
+    private final List<Class<?>> propertyTypes;
+    private final Constructor<P> constructor;
+    private final Map<Method, Integer> getters;
+
+    private DDbProjectionSchema(Class<P> type, TableSchema<?> entitySchema, List<String> attributeNames,
+                                List<Class<?>> propertyTypes, Constructor<P> constructor,
+                                Map<Method, Integer> getters) {
+        this.type = type;
+        this.entitySchema = entitySchema;
+        this.attributeNames = List.copyOf(attributeNames);
+        this.propertyTypes = List.copyOf(propertyTypes);
+        this.constructor = constructor;
+        this.getters = getters;
+        this.converters = attributeNames.stream()
+                .<AttributeConverter<?>>map(entitySchema::converterForAttribute)
+                .toList();
+        for (int i = 0; i < attributeNames.size(); i++) {
+            Class<?> attributeType = converters.get(i).type().rawClass();
+            if (!box(propertyTypes.get(i)).isAssignableFrom(box(attributeType))) {
+                throw new DDbRepoException("Projection %s declares %s as %s but the entity maps it to %s.".formatted(
+                        type.getSimpleName(), attributeNames.get(i), propertyTypes.get(i).getSimpleName(),
+                        attributeType.getSimpleName()),
+                        """
+                                Declare the projection component with the type of the entity attribute.
+                                """);
+            }
+        }
+    }
+
+    static <P> DDbProjectionSchema<P> of(Class<P> type, TableSchema<?> entitySchema) {
+        List<String> attributeNames = new ArrayList<>();
+        List<Class<?>> propertyTypes = new ArrayList<>();
+        Constructor<P> constructor = null;
+        Map<Method, Integer> getters = new HashMap<>();
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            for (RecordComponent component : components) {
+                attributeNames.add(component.getName());
+                propertyTypes.add(component.getType());
+            }
+            try {
+                constructor = type.getDeclaredConstructor(Arrays.stream(components)
+                        .map(RecordComponent::getType).toArray(Class<?>[]::new));
+                constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new DDbRepoException("Record %s has no canonical constructor.".formatted(type.getSimpleName()));
+            }
+        } else if (type.isInterface()) {
+            for (Method method : type.getMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+                    throw new DDbRepoException("Projection %s declares %s which is not a get method.".formatted(
+                            type.getSimpleName(), method.getName()),
+                            """
+                                    Projection interfaces may only declare get methods without parameters,
+                                    other methods have to be default methods.
+                                    """);
+                }
+                getters.put(method, attributeNames.size());
+                attributeNames.add(propertyName(method));
+                propertyTypes.add(method.getReturnType());
+            }
+        } else {
+            throw new DDbRepoException("Projection type %s is neither a record nor an interface.".formatted(
+                    type.getSimpleName()),
+                    """
+                            Declare the projection as a record or as an interface of get methods.
+                            """);
+        }
+        List<String> unmapped = attributeNames.stream()
+                .filter(attributeName -> !entitySchema.attributeNames().contains(attributeName))
+                .toList();
+        if (!unmapped.isEmpty()) {
+            throw new DDbRepoException("Projection %s names the attributes %s which %s does not map.".formatted(
+                    type.getSimpleName(), unmapped, entitySchema.itemType().rawClass().getSimpleName()),
+                    """
+                            Name the projection components like the attributes of the entity.
+                            """);
+        }
+        return new DDbProjectionSchema<>(type, entitySchema, attributeNames, propertyTypes, constructor, getters);
+    }
+
+    private static String propertyName(Method getter) {
+        String name = getter.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return Introspector.decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && box(getter.getReturnType()) == Boolean.class) {
+            return Introspector.decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    @Override
+    public P mapToItem(Map<String, AttributeValue> attributeMap) {
+        Object[] values = new Object[attributeNames.size()];
+        for (int i = 0; i < values.length; i++) {
+            AttributeValue value = attributeMap.get(attributeNames.get(i));
+            values[i] = null == value || Boolean.TRUE.equals(value.nul())
+                    ? defaultValue(propertyTypes.get(i))
+                    : converters.get(i).transformTo(value);
+        }
+        if (null != constructor) {
+            try {
+                return constructor.newInstance(values);
+            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+                throw new DDbRepoException("Projection %s could not be created: %s".formatted(type.getSimpleName(), e));
+            }
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler(values)));
+    }
+
+    private InvocationHandler handler(Object[] values) {
+        return (proxy, method, args) -> {
+            Integer index = getters.get(method);
+            if (null != index) {
+                return values[index];
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName() + toMap(values);
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        };
+    }
+
+    private Map<String, Object> toMap(Object[] values) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            map.put(attributeNames.get(i), values[i]);
+        }
+        return map;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        return switch (type.getName()) {
+            case "byte" -> (byte) 0;
+            case "short" -> (short) 0;
+            case "int" -> 0;
+            case "long" -> 0L;
+            case "float" -> 0f;
+            default -> 0d;
+        };
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return switch (type.getName()) {
+            case "boolean" -> Boolean.class;
+            case "byte" -> Byte.class;
+            case "short" -> Short.class;
+            case "char" -> Character.class;
+            case "int" -> Integer.class;
+            case "long" -> Long.class;
+            case "float" -> Float.class;
+            default -> Double.class;
+        };
+    }
+
+    @Override
+    public Map<String, AttributeValue> itemToMap(P item, boolean ignoreNulls) {
+        throw readOnly();
+    }
+
+    @Override
+    public Map<String, AttributeValue> itemToMap(P item, Collection<String> attributes) {
+        throw readOnly();
+    }
+
+    @Override
+    public AttributeValue attributeValue(P item, String attributeName) {
+        throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Projection %s is read only.".formatted(type.getSimpleName()));
+    }
+
+    @Override
+    public TableMetadata tableMetadata() {
+        return entitySchema.tableMetadata();
+    }
+
+    @Override
+    public EnhancedType<P> itemType() {
+        return EnhancedType.of(type);
+    }
+
+    @Override
+    public List<String> attributeNames() {
+        return attributeNames;
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return false;
+    }
+}
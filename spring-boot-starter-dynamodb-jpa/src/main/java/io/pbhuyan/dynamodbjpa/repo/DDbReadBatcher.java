@@ -0,0 +1,98 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gathers point lookups of concurrent callers and fetches them with a single BatchGetItem. A batch is sent once
+ * the window has passed since its first key or as soon as it holds batchSize keys, whichever comes first. Every
+ * caller blocks until the batch it joined has completed and receives its own item.
+ *
+ * @param <T> entity type.
+ */
+@Slf4j
+class DDbReadBatcher<T> {
+    private static final Executor DISPATCHER = command -> Thread.ofVirtual().start(command);
+
+    private final Function<List<Key>, Map<Key, T>> reader;
+    private final Duration window;
+    private final int batchSize;
+    private List<Lookup<T>> batch = new ArrayList<>();
+
+    DDbReadBatcher(Function<List<Key>, Map<Key, T>> reader, Duration window, int batchSize) {
+        this.reader = reader;
+        this.window = window;
+        this.batchSize = Math.clamp(batchSize, 1, DDbBatchReader.MAX_BATCH_GET_SIZE);
+    }
+
+    Optional<T> get(Key key) {
+        Lookup<T> lookup = new Lookup<>(key, new CompletableFuture<>());
+        List<Lookup<T>> full = null;
+        synchronized (this) {
+            batch.add(lookup);
+            if (batch.size() == 1) {
+                List<Lookup<T>> opened = batch;
+                CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS, DISPATCHER)
+                        .execute(() -> dispatchIfCurrent(opened));
+            }
+            if (batch.size() >= batchSize) {
+                full = batch;
+                batch = new ArrayList<>();
+            }
+        }
+        if (null != full) {
+            List<Lookup<T>> ready = full;
+            DISPATCHER.execute(() -> dispatch(ready));
+        }
+        return await(lookup.result());
+    }
+
+    private void dispatchIfCurrent(List<Lookup<T>> opened) {
+        synchronized (this) {
+            // The batch may already have been sent because it filled up before the window passed
+            if (batch != opened) {
+                return;
+            }
+            batch = new ArrayList<>();
+        }
+        dispatch(opened);
+    }
+
+    private void dispatch(List<Lookup<T>> lookups) {
+        try {
+            Map<Key, T> found = reader.apply(lookups.stream().map(Lookup::key).toList());
+            lookups.forEach(lookup -> lookup.result().complete(Optional.ofNullable(found.get(lookup.key()))));
+        } catch (RuntimeException | Error e) {
+            log.debug("Batched lookup of {} keys failed: {}", lookups.size(), e.getMessage());
+            lookups.forEach(lookup -> lookup.result().completeExceptionally(e));
+        }
+    }
+
+    private Optional<T> await(CompletableFuture<Optional<T>> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Lookup<T>(Key key, CompletableFuture<Optional<T>> result) {
+    }
+}
@@ -1,122 +1,993 @@
 package io.pbhuyan.dynamodbjpa.repo;
 
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
 import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
 import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.dynamodbjpa.model.DDbCacheStats;
+import io.pbhuyan.dynamodbjpa.model.PrimaryKey;
+import io.pbhuyan.dynamodbjpa.model.Slice;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import io.pbhuyan.dynamodbjpa.support.DDbCallSite;
+import io.pbhuyan.dynamodbjpa.support.DDbCapacityBudget;
+import io.pbhuyan.dynamodbjpa.support.DDbContinuationToken;
+import io.pbhuyan.dynamodbjpa.support.DDbSingleFlight;
+import io.pbhuyan.dynamodbjpa.support.DDbTableRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 import software.amazon.awssdk.annotations.NotNull;
 import software.amazon.awssdk.core.pagination.sync.SdkIterable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
 import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 public abstract class DDbReadRepository<T extends DDbEntity, R, S> implements DDbBaseRepository<T, R, S> {
 
+    DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    private DynamoDbClient dynamoDbClient;
     DynamoDbTable<T> table;
+    Class<T> entityClass;
     String entityClassName;
     private String partitionKeyName;
     private String sortKeyName;
-    private boolean consistentRead = false;
+    Map<String, DDbIndex> indices;
+    boolean consistentRead = false;
+    DDbConfigurationProperty.DynamoDB settings = new DDbConfigurationProperty.DynamoDB();
+    DDbNearCache<T> nearCache;
+    private DDbReadBatcher<Map<String, AttributeValue>> readBatcher;
+    DDbSnapshotStore<T> snapshots;
+    private final DDbSingleFlight<Key, Optional<Map<String, AttributeValue>>> singleFlight = new DDbSingleFlight<>();
+    private final Map<Class<?>, DynamoDbTable<?>> projectionTables = new ConcurrentHashMap<>();
+    private final List<DDbDerivedQuery<T>> derivedQueries = new CopyOnWriteArrayList<>();
 
+    /**
+     * @param dynamoDbEnhancedClient client of the mapped table. A repository created outside of Spring also needs
+     *                               {@link #setDynamoDbClient(DynamoDbClient)} for update, saveChanges and
+     *                               transactions.
+     */
     public DDbReadRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
         initRepository(dynamoDbEnhancedClient);
     }
 
     private void initRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
-        Class<T> entityClass = getGenericType(GENERIC_TYPE.entity);
+        this.dynamoDbEnhancedClient = dynamoDbEnhancedClient;
+        entityClass = getGenericType(GENERIC_TYPE.entity);
         entityClassName = entityClass.getSimpleName();
         String tableName = getTableName(entityClass);
         table = dynamoDbEnhancedClient.table(tableName, TableSchema.fromClass(entityClass));
+        DDbTableRegistry.register(tableName, getClass(), entityClass);
         log.info("DynamoDB entity {} is mapped to table {}.", entityClass, tableName);
         partitionKeyName = getPartitionKey(entityClass);
         sortKeyName = getSortKey(entityClass);
+        indices = DDbIndex.of(table.tableSchema().tableMetadata());
+        if (!indices.isEmpty()) {
+            log.info("DynamoDB entity {} declares the secondary indices {}.", entityClass, indices.keySet());
+        }
+        applySettings();
     }
 
+    /**
+     * @param dynamoDbEnhancedClient client of the mapped table, see {@link #DDbReadRepository(DynamoDbEnhancedClient)}.
+     * @param consistentRead         true to read with strong consistency.
+     */
     public DDbReadRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient, boolean consistentRead) {
         this.consistentRead = consistentRead;
         initRepository(dynamoDbEnhancedClient);
     }
 
-
     /**
-     * Fetches all the entities present in the mapped table.
+     * Applies the aws.dynamodb.* settings to this repository. Called by Spring when the repository is a bean,
+     * otherwise the defaults are used.
+     *
+     * @param dDbConfigurationProperty starter configuration.
+     */
+    @Autowired(required = false)
+    public void setDDbConfigurationProperty(DDbConfigurationProperty dDbConfigurationProperty) {
+        if (null != dDbConfigurationProperty && null != dDbConfigurationProperty.getDynamodb()) {
+            this.settings = dDbConfigurationProperty.getDynamodb();
+            applySettings();
+        }
+    }
+
+    private void applySettings() {
+        nearCache = DDbNearCache.of(getClass(), table.tableSchema(), settings.getCache());
+        snapshots = DDbSnapshotStore.of(table.tableSchema(), settings.getDirtyTracking());
+        DDbConfigurationProperty.Read read = settings.getRead();
+        readBatcher = null != read.getBatchWindow() && read.getBatchWindow().isPositive()
+                ? new DDbReadBatcher<>(this::readBatch, read.getBatchWindow(), read.getBatchSize())
+                : null;
+    }
+
+    /**
+     * Sets the low level client used by update, saveChanges, transactions, count and existsBy, which the enhanced
+     * client does not offer. Called by Spring when the repository is a bean. Without it, update, saveChanges and
+     * transactions fail, existsBy reads the whole item and count, countBy and countByIndex read the keys of the
+     * counted items through the enhanced client.
+     *
+     * @param dynamoDbClient client behind the DynamoDbEnhancedClient of this repository.
+     */
+    @Autowired(required = false)
+    public void setDynamoDbClient(DynamoDbClient dynamoDbClient) {
+        this.dynamoDbClient = dynamoDbClient;
+    }
+
+    /**
+     * Counters of the near cache in front of findBy and existsBy, see {@link DDbCache} and aws.dynamodb.cache.*.
+     *
+     * @return cache statistics, empty if this repository is not cached.
+     */
+    public Optional<DDbCacheStats> cacheStats() {
+        return Optional.ofNullable(nearCache).map(DDbNearCache::stats);
+    }
+
+    /**
+     * Runs the body of a public method with its call site set, so that the metrics and guard interceptors tag
+     * the requests it sends without walking the stack. Nested repository calls keep the outer call site.
+     *
+     * @param method name of the repository method.
+     * @param call   body of the method.
+     * @return result of the body.
+     */
+    <V> V call(String method, Supplier<V> call) {
+        return new DDbCallSite(getClass(), method, table.tableName(), entityClass).call(call);
+    }
+
+    /**
+     * {@link #call(String, Supplier)} for methods without a result.
+     */
+    void run(String method, Runnable call) {
+        new DDbCallSite(getClass(), method, table.tableName(), entityClass).run(call);
+    }
+
+    /**
+     * {@link #call(String, Supplier)} for a lazily consumed result, the call site is set while the stream
+     * fetches its elements.
+     */
+    <E> Stream<E> stream(String method, Stream<E> stream) {
+        return new DDbCallSite(getClass(), method, table.tableName(), entityClass).stream(stream);
+    }
+
+    /**
+     * Lists the DynamoDB operation behind every method of this repository, followed by the derived queries
+     * created through {@link #createQueries(Class)}. Methods added by a subclass are not listed. The operations
+     * follow the current settings, a lookup is a BatchGetItem when aws.dynamodb.read.batch-window is set and
+     * is marked cached when the near cache answers it, reads are marked consistent when the repository reads
+     * consistently and scans name their segments when aws.dynamodb.scan.parallelism is above 1.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.accessPaths().stream()
+     *      .filter(DDbAccessPath::isScan)
+     *      .forEach(path -> log.info("{} scans the table", path.method()));
+     * }
+     * </pre>
+     *
+     * @return access paths in declaration order.
+     */
+    public List<DDbAccessPath> accessPaths() {
+        List<DDbAccessPath> accessPaths = new ArrayList<>(baseAccessPaths());
+        derivedQueries.stream()
+                .map(DDbDerivedQuery::accessPath)
+                .distinct()
+                .forEach(accessPaths::add);
+        return accessPaths;
+    }
+
+    List<DDbAccessPath> baseAccessPaths() {
+        List<DDbAccessPath> accessPaths = new ArrayList<>(List.of(
+                new DDbAccessPath("findBy(key)", lookupOperation()),
+                new DDbAccessPath("existsBy", operation(null == dynamoDbClient ? "GetItem" : "GetItem of the key",
+                        consistentRead, null != nearCache)),
+                new DDbAccessPath("findAllByKeys", operation("BatchGetItem", consistentRead, false)),
+                new DDbAccessPath("findAllByPartitionKeys", operation("BatchGetItem", consistentRead, false)),
+                new DDbAccessPath("findAllByPrimaryKeys", operation("BatchGetItem", consistentRead, false)),
+                new DDbAccessPath("findAllBy(partitionKey...)", queryOperation(null, false)),
+                new DDbAccessPath("streamAllBy(partitionKey...)", queryOperation(null, false)),
+                new DDbAccessPath("iterateAllBy", queryOperation(null, false)),
+                new DDbAccessPath("findSliceBy", queryOperation(null, false)),
+                new DDbAccessPath("countBy", queryOperation(null, false)),
+                new DDbAccessPath("findAllBy(partitionKey, attributes)", queryOperation(null, true)),
+                new DDbAccessPath("findBy(key, projection)", queryOperation(null, true)),
+                new DDbAccessPath("findAllBy(partitionKey..., projection)", queryOperation(null, true)),
+                new DDbAccessPath("streamAllBy(partitionKey, projection)", queryOperation(null, true)),
+                new DDbAccessPath("findSliceBy(..., projection)", queryOperation(null, true))));
+        indices.values().stream()
+                .filter(index -> null != index.name())
+                .forEach(index -> accessPaths.add(new DDbAccessPath("*ByIndex(%s)".formatted(index.name()),
+                        queryOperation(index.name(), false))));
+        int parallelism = settings.getScan().getParallelism();
+        accessPaths.addAll(List.of(
+                new DDbAccessPath("findAll", scanOperation(parallelism, consistentRead)),
+                new DDbAccessPath("streamAll", scanOperation(parallelism, consistentRead)),
+                new DDbAccessPath("count", scanOperation(parallelism, consistentRead)),
+                new DDbAccessPath("findAllBy(requestConsumer)", scanOperation(1, consistentRead)),
+                new DDbAccessPath("streamAllBy(requestConsumer)", scanOperation(1, consistentRead)),
+                new DDbAccessPath("iterateAll", scanOperation(1, consistentRead)),
+                new DDbAccessPath("findSlice", scanOperation(1, consistentRead)),
+                new DDbAccessPath("parallelScan",
+                        operation("Scan in totalSegments segments", consistentRead, false))));
+        return accessPaths;
+    }
+
+    /**
+     * @return operation of a single item lookup by findBy or a derived query on the whole primary key.
+     */
+    String lookupOperation() {
+        return operation(null == readBatcher ? "GetItem" : "BatchGetItem", consistentRead, null != nearCache);
+    }
+
+    /**
+     * @param indexName name of the secondary index, null for the table.
+     * @param projected true if only the attributes of a projection are read.
+     * @return operation of a Query on the table or the index.
+     */
+    String queryOperation(String indexName, boolean projected) {
+        boolean consistent = consistentRead && (null == indexName || !index(indexName).global());
+        String api = (null == indexName ? "Query" : "Query on " + indexName)
+                + (projected ? " projecting attributes" : "");
+        return operation(api, consistent, false);
+    }
+
+    /**
+     * @param segments   number of segments scanned in parallel.
+     * @param consistent true if the Scan reads consistently.
+     * @return operation of a Scan of the table.
+     */
+    String scanOperation(int segments, boolean consistent) {
+        return operation(segments > 1 ? "Scan in %d segments".formatted(segments) : "Scan", consistent, false);
+    }
+
+    private static String operation(String api, boolean consistent, boolean cached) {
+        return api + (consistent ? ", consistent" : "") + (cached ? ", cached" : "");
+    }
+
+
+    /**
+     * Fetches all the entities present in the mapped table. The table is scanned in parallel segments when
+     * aws.dynamodb.scan.parallelism is above 1.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAll();
+     * }
+     * </pre>
+     *
+     * @return List of all entities.
+     */
+    public List<T> findAll() {
+        try (Stream<T> result = scanAll("findAll", r -> r.consistentRead(consistentRead))) {
+            return call("findAll", result::toList);
+        }
+    }
+
+    /**
+     * Scans the mapped table in totalSegments segments, each segment on its own virtual thread, and merges the
+     * results into a single stream. Meant for full table jobs such as exports or reprocessing. Consumed capacity
+     * is limited by aws.dynamodb.scan.read-capacity-budget. The stream must be closed or fully consumed.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * try (Stream<Customer> customers = dynamoDbRepository.parallelScan(8, r -> r.filterExpression(expression))) {
+     *     customers.forEach(this::reprocess);
+     * }
+     * }
+     * </pre>
+     *
+     * @param totalSegments   number of segments scanned in parallel.
+     * @param requestConsumer A {@link Consumer} of {@link ScanEnhancedRequest} defining the scan conditions.
+     * @return Stream of the scanned entities in no particular order.
+     */
+    public Stream<T> parallelScan(int totalSegments, Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        checkScanPolicy("parallelScan");
+        return new DDbParallelScan<>(table, Math.max(1, totalSegments),
+                new DDbCapacityBudget(settings.getScan().getReadCapacityBudget()))
+                .stream(requestConsumer.andThen(r -> r.consistentRead(consistentRead)));
+    }
+
+    /**
+     * This is a convenience method that creates an instance of the request builder avoiding the need to create one
+     * manually via {@link ScanEnhancedRequest#builder()}.
+     *
+     * <p>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * List<MyItem> results = dynamoDbRepository.findAllBy(r -> r.limit(5));
+     * }
+     * </pre>
+     *
+     * @param requestConsumer A {@link Consumer} of {@link ScanEnhancedRequest} defining the query conditions and how to
+     *                        handle the results.
+     * @return an iterator of type {@link SdkIterable} with paginated results (see {@link Page}).
+     */
+    public List<T> findAllBy(Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        PageIterable<T> result = scan("findAllBy", requestConsumer.andThen(r -> r.consistentRead(consistentRead)));
+        return call("findAllBy", () -> returnResult(result));
+    }
+
+    /**
+     * Fetches all entities matching the partition key when sort key is present. Served by a Query on the
+     * partition key, so only the matching item collection is read.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllBy("partitionKey");
+     * }
+     * </pre>
+     *
+     * @return List of entities matching the partition key
+     */
+    public List<T> findAllBy(@NotNull R partitionKey) {
+        PageIterable<T> result = query(partitionKey, null, r -> {
+        });
+        return call("findAllBy", () -> returnResult(result));
+    }
+
+    /**
+     * Fetches the entities matching the partition key whose sort key satisfies the condition, in ascending
+     * sort key order. Only the matching slice of the item collection is read. DDbRepoException will be
+     * thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllBy("partitionKey", SortKeyCondition.between(from, to));
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @return List of entities matching the partition key and sort key condition.
+     */
+    public List<T> findAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition) {
+        requireSortKey("findAllBy(partitionKey, sortKeyCondition)");
+        return call("findAllBy", () -> returnResult(query(partitionKey, sortKeyCondition, r -> {
+        })));
+    }
+
+    /**
+     * Fetches at most limit entities matching the partition key whose sort key satisfies the condition.
+     * DDbRepoException will be thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * // latest 10 events on or before now
+     * dynamoDbRepository.findAllBy("partitionKey", SortKeyCondition.lessThanOrEqualTo(now), false, 10);
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @param scanIndexForward true for ascending and false for descending sort key order.
+     * @param limit            maximum number of entities returned.
+     * @return List of entities matching the partition key and sort key condition.
+     */
+    public List<T> findAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition,
+                             boolean scanIndexForward, int limit) {
+        requireSortKey("findAllBy(partitionKey, sortKeyCondition, scanIndexForward, limit)");
+        requirePositiveLimit("findAllBy(partitionKey, sortKeyCondition, scanIndexForward, limit)", limit);
+        return call("findAllBy", () -> query(partitionKey, sortKeyCondition, r -> r
+                .scanIndexForward(scanIndexForward)
+                .limit(limit))
+                .items().stream().limit(limit).toList());
+    }
+
+    /**
+     * Fetches at most limit entities matching the partition key ordered by the sort key. DDbRepoException will
+     * be thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * // latest 10 events
+     * dynamoDbRepository.findAllBy("partitionKey", false, 10);
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param scanIndexForward true for ascending and false for descending sort key order.
+     * @param limit            maximum number of entities returned.
+     * @return List of entities matching the partition key.
+     */
+    public List<T> findAllBy(@NotNull R partitionKey, boolean scanIndexForward, int limit) {
+        requireSortKey("findAllBy(partitionKey, scanIndexForward, limit)");
+        requirePositiveLimit("findAllBy(partitionKey, scanIndexForward, limit)", limit);
+        return call("findAllBy", () -> query(partitionKey, null, r -> r
+                .scanIndexForward(scanIndexForward)
+                .limit(limit))
+                .items().stream().limit(limit).toList());
+    }
+
+
+    /**
+     * Streams all the entities present in the mapped table. Pages are fetched lazily as the stream is consumed,
+     * segments are scanned in parallel when aws.dynamodb.scan.parallelism is above 1. The stream must be closed or
+     * fully consumed.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * try (Stream<Customer> customers = dynamoDbRepository.streamAll()) {
+     *     customers.forEach(this::export);
+     * }
+     * }
+     * </pre>
+     *
+     * @return Stream of all entities.
+     */
+    public Stream<T> streamAll() {
+        return scanAll("streamAll", r -> r.consistentRead(consistentRead));
+    }
+
+    /**
+     * Lazy variant of {@link #findAllBy(Consumer)}. Pages are fetched as the stream is consumed.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.streamAllBy(r -> r.filterExpression(expression)).forEach(this::export);
+     * }
+     * </pre>
+     *
+     * @param requestConsumer A {@link Consumer} of {@link ScanEnhancedRequest} defining the scan conditions.
+     * @return Stream of the matching entities.
+     */
+    public Stream<T> streamAllBy(Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        return streamResult(scan("streamAllBy", requestConsumer.andThen(r -> r.consistentRead(consistentRead))));
+    }
+
+    /**
+     * Lazy variant of {@link #findAllBy(Object)}. Pages of the item collection are fetched as the stream is
+     * consumed.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.streamAllBy("partitionKey").forEach(this::export);
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entities.
+     * @return Stream of entities matching the partition key.
+     */
+    public Stream<T> streamAllBy(@NotNull R partitionKey) {
+        return streamResult(query(partitionKey, null, r -> {
+        }));
+    }
+
+    /**
+     * Lazy variant of {@link #findAllBy(Object, SortKeyCondition)}. Pages are fetched as the stream is consumed.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.streamAllBy("partitionKey", SortKeyCondition.greaterThan(since)).forEach(this::export);
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @return Stream of entities matching the partition key and sort key condition.
+     */
+    public Stream<T> streamAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition) {
+        requireSortKey("streamAllBy(partitionKey, sortKeyCondition)");
+        return streamResult(query(partitionKey, sortKeyCondition, r -> {
+        }));
+    }
+
+    /**
+     * Iterable variant of {@link #streamAll()} for use in for-each loops. The table is scanned sequentially and
+     * every iteration issues a new scan.
+     *
+     * @return Iterable over all entities.
+     */
+    public Iterable<T> iterateAll() {
+        return scan("iterateAll", r -> r.consistentRead(consistentRead)).items();
+    }
+
+    /**
+     * Iterable variant of {@link #streamAllBy(Object)} for use in for-each loops. Every iteration issues a new
+     * query.
+     *
+     * @param partitionKey of the entities.
+     * @return Iterable over the entities matching the partition key.
+     */
+    public Iterable<T> iterateAllBy(@NotNull R partitionKey) {
+        return query(partitionKey, null, r -> {
+        }).items();
+    }
+
+    /**
+     * Iterable variant of {@link #streamAllBy(Object, SortKeyCondition)} for use in for-each loops. Every
+     * iteration issues a new query.
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @return Iterable over the entities matching the partition key and sort key condition.
+     */
+    public Iterable<T> iterateAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition) {
+        requireSortKey("iterateAllBy(partitionKey, sortKeyCondition)");
+        return query(partitionKey, sortKeyCondition, r -> {
+        }).items();
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities of the mapped table. Served by a Scan, pass the token of the
+     * returned slice to fetch the next page. Each call issues a single request.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Slice<Customer> first = dynamoDbRepository.findSlice(50, null);
+     * Slice<Customer> second = dynamoDbRepository.findSlice(50, first.nextToken());
+     * }
+     * </pre>
+     *
+     * @param pageSize maximum number of entities in the slice.
+     * @param token    continuation token of the previous slice, null for the first page.
+     * @return Slice of entities with the token of the next page.
+     */
+    public Slice<T> findSlice(int pageSize, String token) {
+        requirePositiveLimit("findSlice(pageSize, token)", pageSize);
+        return call("findSlice", () -> returnSlice(scan("findSlice", r -> r
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token))
+                .consistentRead(consistentRead))));
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities matching the partition key. Pass the token of the returned
+     * slice to fetch the next page. Each call issues a single Query.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Slice<Order> orders = dynamoDbRepository.findSliceBy("customerId", 20, request.getToken());
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entities.
+     * @param pageSize     maximum number of entities in the slice.
+     * @param token        continuation token of the previous slice, null for the first page.
+     * @return Slice of entities with the token of the next page.
+     */
+    public Slice<T> findSliceBy(@NotNull R partitionKey, int pageSize, String token) {
+        requirePositiveLimit("findSliceBy(partitionKey, pageSize, token)", pageSize);
+        return call("findSliceBy", () -> returnSlice(query(partitionKey, null, r -> r
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token)))));
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities matching the partition key and sort key condition. Pass the
+     * token of the returned slice to fetch the next page. Each call issues a single Query. DDbRepoException will
+     * be thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Slice<Event> latest = dynamoDbRepository.findSliceBy("deviceId", SortKeyCondition.lessThan(now), false, 20, null);
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @param scanIndexForward true for ascending and false for descending sort key order.
+     * @param pageSize         maximum number of entities in the slice.
+     * @param token            continuation token of the previous slice, null for the first page.
+     * @return Slice of entities with the token of the next page.
+     */
+    public Slice<T> findSliceBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition,
+                                boolean scanIndexForward, int pageSize, String token) {
+        requireSortKey("findSliceBy(partitionKey, sortKeyCondition, scanIndexForward, pageSize, token)");
+        requirePositiveLimit("findSliceBy(partitionKey, sortKeyCondition, scanIndexForward, pageSize, token)",
+                pageSize);
+        return call("findSliceBy", () -> returnSlice(query(partitionKey, sortKeyCondition, r -> r
+                .scanIndexForward(scanIndexForward)
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token)))));
+    }
+
+    /**
+     * Fetches the entities whose index partition key matches, through a Query on the secondary index declared
+     * with DynamoDbSecondaryPartitionKey or DynamoDbSecondarySortKey. Attributes not projected into the index are
+     * left null. Queries on a global secondary index are eventually consistent. DDbRepoException will be thrown if
+     * the entity class declares no index of that name.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllByIndex("email-index", "someone@example.com");
+     * }
+     * </pre>
+     *
+     * @param indexName    name of the secondary index.
+     * @param partitionKey value of the index partition key.
+     * @return List of entities matching the index partition key.
+     */
+    public List<T> findAllByIndex(@NotNull String indexName, @NotNull Object partitionKey) {
+        return call("findAllByIndex", () -> returnResult(queryIndex(indexName, partitionKey, null, r -> {
+        })));
+    }
+
+    /**
+     * Fetches the entities whose index partition key matches and whose index sort key satisfies the condition,
+     * in ascending index sort key order. DDbRepoException will be thrown if the index has no sort key.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllByIndex("status-createdAt-index", "OPEN", SortKeyCondition.greaterThan(since));
+     * }
+     * </pre>
+     *
+     * @param indexName        name of the secondary index.
+     * @param partitionKey     value of the index partition key.
+     * @param sortKeyCondition condition on the index sort key.
+     * @return List of entities matching the index partition key and sort key condition.
+     */
+    public List<T> findAllByIndex(@NotNull String indexName, @NotNull Object partitionKey,
+                                  @NotNull SortKeyCondition<?> sortKeyCondition) {
+        return call("findAllByIndex", () -> returnResult(queryIndex(indexName, partitionKey, sortKeyCondition,
+                r -> {
+                })));
+    }
+
+    /**
+     * Lazy variant of {@link #findAllByIndex(String, Object)}. Pages are fetched as the stream is consumed.
+     *
+     * @param indexName    name of the secondary index.
+     * @param partitionKey value of the index partition key.
+     * @return Stream of entities matching the index partition key.
+     */
+    public Stream<T> streamAllByIndex(@NotNull String indexName, @NotNull Object partitionKey) {
+        return streamResult(queryIndex(indexName, partitionKey, null, r -> {
+        }));
+    }
+
+    /**
+     * Lazy variant of {@link #findAllByIndex(String, Object, SortKeyCondition)}. Pages are fetched as the stream
+     * is consumed.
+     *
+     * @param indexName        name of the secondary index.
+     * @param partitionKey     value of the index partition key.
+     * @param sortKeyCondition condition on the index sort key.
+     * @return Stream of entities matching the index partition key and sort key condition.
+     */
+    public Stream<T> streamAllByIndex(@NotNull String indexName, @NotNull Object partitionKey,
+                                      @NotNull SortKeyCondition<?> sortKeyCondition) {
+        return streamResult(queryIndex(indexName, partitionKey, sortKeyCondition, r -> {
+        }));
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities whose index partition key matches. Pass the token of the
+     * returned slice to fetch the next page. Each call issues a single Query on the index.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Slice<Order> open = dynamoDbRepository.findSliceByIndex("status-index", "OPEN", 50, request.getToken());
+     * }
+     * </pre>
+     *
+     * @param indexName    name of the secondary index.
+     * @param partitionKey value of the index partition key.
+     * @param pageSize     maximum number of entities in the slice.
+     * @param token        continuation token of the previous slice, null for the first page.
+     * @return Slice of entities with the token of the next page.
+     */
+    public Slice<T> findSliceByIndex(@NotNull String indexName, @NotNull Object partitionKey, int pageSize,
+                                     String token) {
+        requirePositiveLimit("findSliceByIndex(indexName, partitionKey, pageSize, token)", pageSize);
+        return call("findSliceByIndex", () -> returnSlice(queryIndex(indexName, partitionKey, null, r -> r
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token)))));
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities whose index partition key matches and whose index sort key
+     * satisfies the condition. DDbRepoException will be thrown if the index has no sort key.
+     *
+     * @param indexName        name of the secondary index.
+     * @param partitionKey     value of the index partition key.
+     * @param sortKeyCondition condition on the index sort key.
+     * @param scanIndexForward true for ascending and false for descending index sort key order.
+     * @param pageSize         maximum number of entities in the slice.
+     * @param token            continuation token of the previous slice, null for the first page.
+     * @return Slice of entities with the token of the next page.
+     */
+    public Slice<T> findSliceByIndex(@NotNull String indexName, @NotNull Object partitionKey,
+                                     @NotNull SortKeyCondition<?> sortKeyCondition, boolean scanIndexForward,
+                                     int pageSize, String token) {
+        requirePositiveLimit("findSliceByIndex(indexName, partitionKey, sortKeyCondition, scanIndexForward, pageSize, "
+                + "token)", pageSize);
+        return call("findSliceByIndex", () -> returnSlice(queryIndex(indexName, partitionKey, sortKeyCondition,
+                r -> r
+                .scanIndexForward(scanIndexForward)
+                .limit(pageSize)
+                .exclusiveStartKey(DDbContinuationToken.decode(token)))));
+    }
+
+    /**
+     * Fetches the entities matching the partition key with only the given attributes read, the other attributes
+     * of the returned entities are left null. The attributes are sent as ProjectionExpression so the rest of the
+     * item never crosses the wire.
      * <br><br/>
      * Example:
      * <pre>
      * {@code
      *
-     * dynamoDbRepository.findAll();
+     * dynamoDbRepository.findAllBy("partitionKey", List.of("name", "status"));
      * }
      * </pre>
      *
-     * @return List of all entities.
+     * @param partitionKey of the entities.
+     * @param attributes   names of the attributes to read.
+     * @return List of partially filled entities matching the partition key.
      */
-    public List<T> findAll() {
-        PageIterable<T> result = table.scan(r -> r.consistentRead(consistentRead));
-        return returnResult(result);
+    public List<T> findAllBy(@NotNull R partitionKey, @NotNull Collection<String> attributes) {
+        return call("findAllBy", () -> returnResult(query(partitionKey, null,
+                r -> r.attributesToProject(attributes))));
     }
 
     /**
-     * This is a convenience method that creates an instance of the request builder avoiding the need to create one
-     * manually via {@link ScanEnhancedRequest#builder()}.
-     *
-     * <p>
+     * Fetches the entity matching the partition key as a projection. The projection is a record or an interface
+     * of get methods whose component names are attributes of the entity. Only those attributes are read and they
+     * are mapped straight into the projection without building the entity. Bypasses the near cache.
+     * DDbRepoException will be thrown if a sort key is detected in the entity class.
+     * <br><br/>
      * Example:
      * <pre>
      * {@code
      *
-     * List<MyItem> results = dynamoDbRepository.findAllBy(r -> r.limit(5));
+     * record CustomerName(String id, String name) {}
+     *
+     * Optional<CustomerName> name = dynamoDbRepository.findBy("partitionKey", CustomerName.class);
      * }
      * </pre>
      *
-     * @param requestConsumer A {@link Consumer} of {@link ScanEnhancedRequest} defining the query conditions and how to
-     *                        handle the results.
-     * @return an iterator of type {@link SdkIterable} with paginated results (see {@link Page}).
+     * @param partitionKey of the entity.
+     * @param projection   record or interface type to read into.
+     * @return Optional of the projection of the entity matching the partition key.
      */
-    public List<T> findAllBy(Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
-        PageIterable<T> result = table.scan(requestConsumer.andThen(r -> r.consistentRead(consistentRead)));
-        return returnResult(result);
+    public <P> Optional<P> findBy(@NotNull R partitionKey, @NotNull Class<P> projection) {
+        requireNoSortKey("findBy(partitionKey, projection)");
+        DynamoDbTable<P> target = projectionTable(projection);
+        return call("findBy", () -> query(target, partitionKey, null, projectedAttributes(target))
+                .items().stream().findFirst());
+    }
+
+    /**
+     * Fetches the entity matching the partition key and sort key as a projection, see
+     * {@link #findBy(Object, Class)}. DDbRepoException will be thrown if a sort key is missing in the entity class.
+     *
+     * @param partitionKey of the entity.
+     * @param sortKey      of the entity.
+     * @param projection   record or interface type to read into.
+     * @return Optional of the projection of the entity matching the partition key and sort key.
+     */
+    public <P> Optional<P> findBy(@NotNull R partitionKey, @NotNull S sortKey, @NotNull Class<P> projection) {
+        requireSortKey("findBy(partitionKey, sortKey, projection)");
+        DynamoDbTable<P> target = projectionTable(projection);
+        return call("findBy", () -> query(target, partitionKey, SortKeyCondition.equalTo(sortKey),
+                projectedAttributes(target))
+                .items().stream().findFirst());
     }
 
     /**
-     * Fetches all entities matching the partition key when sort key is present.
+     * Fetches the entities matching the partition key as projections, see {@link #findBy(Object, Class)}.
      * <br><br/>
      * Example:
      * <pre>
      * {@code
      *
-     * dynamoDbRepository.findAllBy("partitionKey");
+     * List<OrderLine> lines = dynamoDbRepository.findAllBy("orderId", OrderLine.class);
      * }
      * </pre>
      *
-     * @return List of entities matching the partition key
+     * @param partitionKey of the entities.
+     * @param projection   record or interface type to read into.
+     * @return List of projections of the entities matching the partition key.
      */
-    public List<T> findAllBy(@NotNull R partitionKey) {
-        Expression filterExpression = Expression.builder()
-                .expression("#a = :b")
-                .putExpressionName("#a", partitionKeyName)
-                .putExpressionValue(":b", getKeyAttributeValue(partitionKey))
-                .build();
+    public <P> List<P> findAllBy(@NotNull R partitionKey, @NotNull Class<P> projection) {
+        DynamoDbTable<P> target = projectionTable(projection);
+        return call("findAllBy", () -> query(target, partitionKey, null, projectedAttributes(target))
+                .items().stream().toList());
+    }
 
-        PageIterable<T> result = table.scan(r -> r
-                .filterExpression(filterExpression)
-                .consistentRead(consistentRead));
-        return returnResult(result);
+    /**
+     * Fetches the entities matching the partition key and sort key condition as projections, see
+     * {@link #findBy(Object, Class)}. DDbRepoException will be thrown if a sort key is missing in the entity class.
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @param projection       record or interface type to read into.
+     * @return List of projections of the entities matching the partition key and sort key condition.
+     */
+    public <P> List<P> findAllBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition,
+                                 @NotNull Class<P> projection) {
+        requireSortKey("findAllBy(partitionKey, sortKeyCondition, projection)");
+        DynamoDbTable<P> target = projectionTable(projection);
+        return call("findAllBy", () -> query(target, partitionKey, sortKeyCondition, projectedAttributes(target))
+                .items().stream().toList());
+    }
+
+    /**
+     * Lazy variant of {@link #findAllBy(Object, Class)}. Pages are fetched as the stream is consumed.
+     *
+     * @param partitionKey of the entities.
+     * @param projection   record or interface type to read into.
+     * @return Stream of projections of the entities matching the partition key.
+     */
+    public <P> Stream<P> streamAllBy(@NotNull R partitionKey, @NotNull Class<P> projection) {
+        DynamoDbTable<P> target = projectionTable(projection);
+        return query(target, partitionKey, null, projectedAttributes(target)).items().stream();
+    }
+
+    /**
+     * Fetches one page of at most pageSize entities matching the partition key as projections, see
+     * {@link #findSliceBy(Object, int, String)} and {@link #findBy(Object, Class)}.
+     *
+     * @param partitionKey of the entities.
+     * @param pageSize     maximum number of entities in the slice.
+     * @param token        continuation token of the previous slice, null for the first page.
+     * @param projection   record or interface type to read into.
+     * @return Slice of projections with the token of the next page.
+     */
+    public <P> Slice<P> findSliceBy(@NotNull R partitionKey, int pageSize, String token,
+                                    @NotNull Class<P> projection) {
+        requirePositiveLimit("findSliceBy(partitionKey, pageSize, token, projection)", pageSize);
+        DynamoDbTable<P> target = projectionTable(projection);
+        Page<P> page = call("findSliceBy", () -> query(target, partitionKey, null, projectedAttributes(target)
+                .andThen(r -> r
+                        .limit(pageSize)
+                        .exclusiveStartKey(DDbContinuationToken.decode(token))))
+                .iterator().next());
+        return new Slice<>(page.items(), DDbContinuationToken.encode(page.lastEvaluatedKey()));
+    }
+
+    /**
+     * Fetches the entities whose index partition key matches as projections, see
+     * {@link #findAllByIndex(String, Object)} and {@link #findBy(Object, Class)}. A projection limited to the
+     * attributes projected into the index is read without fetching from the table.
+     *
+     * @param indexName    name of the secondary index.
+     * @param partitionKey value of the index partition key.
+     * @param projection   record or interface type to read into.
+     * @return List of projections of the entities matching the index partition key.
+     */
+    public <P> List<P> findAllByIndex(@NotNull String indexName, @NotNull Object partitionKey,
+                                      @NotNull Class<P> projection) {
+        DynamoDbTable<P> target = projectionTable(projection);
+        return call("findAllByIndex", () -> queryIndex(target, indexName, partitionKey, null,
+                projectedAttributes(target))
+                .items().stream().toList());
     }
 
+    /**
+     * Implements an interface of derived query methods such as findByStatusAndCreatedAtAfter. Every method is
+     * parsed here, once, into GetItem, a Query on the table or a secondary index, or as the last resort a Scan,
+     * so a call only binds its arguments. DDbRepoException will be thrown for a method name that cannot be
+     * derived. Methods return the entity, Optional, List or Stream of the entity or of a projection, default
+     * methods are called as they are.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * public interface OrderQueries {
+     *     List<Order> findByCustomerIdAndCreatedAtAfter(String customerId, String createdAt);
+     *     Optional<Order> findFirstByStatusOrderByCreatedAtDesc(String status);
+     * }
+     *
+     * OrderQueries queries = orderRepository.createQueries(OrderQueries.class);
+     * }
+     * </pre>
+     *
+     * @param queries interface declaring the query methods.
+     * @return implementation of the interface backed by this repository.
+     */
+    public <Q> Q createQueries(@NotNull Class<Q> queries) {
+        if (!queries.isInterface()) {
+            throw new DDbRepoException("%s is not an interface.".formatted(queries.getSimpleName()),
+                    """
+                            Declare the derived query methods in an interface.
+                            """);
+        }
+        Map<Method, DDbDerivedQuery<T>> derived = new HashMap<>();
+        for (Method method : queries.getMethods()) {
+            if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                derived.put(method, DDbDerivedQuery.parse(method, this));
+            }
+        }
+        derived.values().stream()
+                .filter(query -> derivedQueries.stream()
+                        .noneMatch(known -> known.accessPath().method().equals(query.accessPath().method())))
+                .forEach(derivedQueries::add);
+        log.info("Derived {} queries of {} on table {}.", derived.size(), queries.getSimpleName(), table.tableName());
+        return queries.cast(Proxy.newProxyInstance(queries.getClassLoader(), new Class<?>[]{queries},
+                (proxy, method, args) -> {
+                    DDbDerivedQuery<T> query = derived.get(method);
+                    if (null != query) {
+                        Object[] arguments = null == args ? new Object[0] : args;
+                        String name = queries.getSimpleName() + "." + method.getName();
+                        Object result = call(name, () -> query.execute(arguments));
+                        // Pages of a stream are fetched after the call returned, attach them to the query
+                        return result instanceof Stream<?> stream ? stream(name, stream) : result;
+                    }
+                    if (method.isDefault()) {
+                        return InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    return switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "toString" -> queries.getSimpleName() + " of " + getClass().getSimpleName();
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                }));
+    }
 
     /**
      * Fetches the entity matching the partition key. DDbRepoException will be thrown if a
      * sort key is detected in the entity class.
+     * Served from the near cache when the repository is cached, see {@link DDbCache}.
      * <br><br/>
      * Example:
      * <pre>
@@ -147,15 +1018,13 @@ public abstract class DDbReadRepository<T extends DDbEntity, R, S> implements DD
                     """.formatted(entityClassName));
 
         }
-        T item = table.getItem(r -> r
-                .consistentRead(consistentRead)
-                .key(getKey(partitionKey)));
-        return Optional.ofNullable(item);
+        return call("findBy", () -> getItem(getKey(partitionKey)));
     }
 
     /**
      * Fetches the entity matching the partition key and sort key. DDbRepoException will be thrown if a
      * sort key is missing in the entity class.
+     * Served from the near cache when the repository is cached, see {@link DDbCache}.
      * <br><br/>
      * Example:
      * <pre>
@@ -187,15 +1056,13 @@ public abstract class DDbReadRepository<T extends DDbEntity, R, S> implements DD
                     """.formatted(entityClassName));
 
         }
-        T item = table.getItem(r -> r
-                .consistentRead(consistentRead)
-                .key(getKey(partitionKey, sortKey)));
-        return Optional.ofNullable(item);
+        return call("findBy", () -> getItem(getKey(partitionKey, sortKey)));
     }
 
     /**
      * Checks if the entity exists for a given partition key. If the entity has a sort
-     * key then this method will throw DDbRepoException.
+     * key then this method will throw DDbRepoException. Only the partition key attribute is read, the
+     * entity is not deserialized. Served from the near cache when the key is cached, see {@link DDbCache}.
      * <br><br/>
      * Example:
      * <pre>
@@ -209,12 +1076,14 @@ public abstract class DDbReadRepository<T extends DDbEntity, R, S> implements DD
      * @return true if the entity exists.
      */
     public boolean existsBy(@NotNull R partitionKey) {
-        return findBy(partitionKey).isPresent();
+        requireNoSortKey("existsBy(partitionKey)");
+        return call("existsBy", () -> exists(getKey(partitionKey)));
     }
 
     /**
      * Checks if the entity exists for a given partition key and sort key. If the entity does not have a sort
-     * key then this method will throw DDbRepoException.
+     * key then this method will throw DDbRepoException. Only the partition key attribute is read, the
+     * entity is not deserialized. Served from the near cache when the key is cached, see {@link DDbCache}.
      * <br><br/>
      * Example:
      * <pre>
@@ -229,7 +1098,469 @@ public abstract class DDbReadRepository<T extends DDbEntity, R, S> implements DD
      * @return true if the entity exists.
      */
     public boolean existsBy(@NotNull R partitionKey, @NotNull S sortKey) {
-        return findBy(partitionKey, sortKey).isPresent();
+        requireSortKey("existsBy(partitionKey, sortKey)");
+        return call("existsBy", () -> exists(getKey(partitionKey, sortKey)));
+    }
+
+    /**
+     * Counts the entities of the mapped table with a Scan that selects COUNT, so no item is transferred. The
+     * table is counted in parallel segments when aws.dynamodb.scan.parallelism is above 1 and within
+     * aws.dynamodb.scan.read-capacity-budget. Every item is still read and billed, aws.dynamodb.scan.policy
+     * applies.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * long customers = dynamoDbRepository.count();
+     * }
+     * </pre>
+     *
+     * @return number of entities in the table.
+     */
+    public long count() {
+        if (null == dynamoDbClient) {
+            return call("count", () -> {
+                try (Stream<T> keys = scanAll("count", r -> r
+                        .attributesToProject(keyAttributes())
+                        .consistentRead(consistentRead))) {
+                    return keys.count();
+                }
+            });
+        }
+        checkScanPolicy("count");
+        DDbConfigurationProperty.Scan scan = settings.getScan();
+        return call("count", () -> new DDbCount(dynamoDbClient(), Math.max(1, scan.getParallelism()),
+                new DDbCapacityBudget(scan.getReadCapacityBudget()))
+                .scan(ScanRequest.builder()
+                        .tableName(table.tableName())
+                        .consistentRead(consistentRead)
+                        .build()));
+    }
+
+    /**
+     * Counts the entities matching the partition key with a Query that selects COUNT, so only the number of
+     * items in the item collection is returned.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * long orders = dynamoDbRepository.countBy("customerId");
+     * }
+     * </pre>
+     *
+     * @param partitionKey of the entities.
+     * @return number of entities matching the partition key.
+     */
+    public long countBy(@NotNull R partitionKey) {
+        return call("countBy", () -> countQuery(null, partitionKey, null));
+    }
+
+    /**
+     * Counts the entities matching the partition key whose sort key satisfies the condition with a Query that
+     * selects COUNT. DDbRepoException will be thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * long ordersThisYear = dynamoDbRepository.countBy("customerId", SortKeyCondition.beginsWith("2024-"));
+     * }
+     * </pre>
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key.
+     * @return number of entities matching the partition key and sort key condition.
+     */
+    public long countBy(@NotNull R partitionKey, @NotNull SortKeyCondition<S> sortKeyCondition) {
+        requireSortKey("countBy(partitionKey, sortKeyCondition)");
+        return call("countBy", () -> countQuery(null, partitionKey, sortKeyCondition));
+    }
+
+    /**
+     * Counts the entities whose index partition key matches with a Query on the secondary index that selects
+     * COUNT.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * long pending = dynamoDbRepository.countByIndex("status-index", "PENDING");
+     * }
+     * </pre>
+     *
+     * @param indexName    name of the secondary index.
+     * @param partitionKey value of the index partition key.
+     * @return number of entities in the index matching the partition key.
+     */
+    public long countByIndex(@NotNull String indexName, @NotNull Object partitionKey) {
+        return call("countByIndex", () -> countQuery(index(indexName), partitionKey, null));
+    }
+
+    /**
+     * Fetches the entities matching the supplied keys through BatchGetItem, 100 keys per request. Honors the
+     * repository's consistentRead flag. Unprocessed keys are retried with exponential backoff as configured under
+     * aws.dynamodb.batch, chunks are fetched in parallel when aws.dynamodb.batch.concurrency is above 1.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * Map<Key, Customer> customers = dynamoDbRepository.findAllByKeys(List.of(
+     *      dynamoDbRepository.getKey("partitionKey1"),
+     *      dynamoDbRepository.getKey("partitionKey2")
+     * ));
+     * }
+     * </pre>
+     *
+     * @param keys of the entities.
+     * @return Map of the found entities by their key. Keys without a matching entity are absent.
+     */
+    public Map<Key, T> findAllByKeys(@NotNull Collection<Key> keys) {
+        return call("findAllByKeys", () -> batchReader().read(keys));
+    }
+
+    /**
+     * Fetches the entities matching the supplied partition keys through BatchGetItem. DDbRepoException will be
+     * thrown if a sort key is detected in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllByPartitionKeys(List.of("partitionKey1", "partitionKey2"));
+     * }
+     * </pre>
+     *
+     * @param partitionKeys of the entities.
+     * @return List of the found entities in the order of the supplied partition keys.
+     */
+    public List<T> findAllByPartitionKeys(@NotNull Collection<R> partitionKeys) {
+        requireNoSortKey("findAllByPartitionKeys(partitionKeys)");
+        List<Key> keys = partitionKeys.stream().map(this::getKey).toList();
+        return call("findAllByPartitionKeys", () -> inKeyOrder(keys, findAllByKeys(keys)));
+    }
+
+    /**
+     * Fetches the entities matching the supplied partition key and sort key pairs through BatchGetItem.
+     * DDbRepoException will be thrown if a sort key is missing in the entity class.
+     * <br><br/>
+     * Example:
+     * <pre>
+     * {@code
+     *
+     * dynamoDbRepository.findAllByPrimaryKeys(List.of(
+     *      PrimaryKey.of("partitionKey1", "sortKey1"),
+     *      PrimaryKey.of("partitionKey1", "sortKey2")
+     * ));
+     * }
+     * </pre>
+     *
+     * @param primaryKeys of the entities.
+     * @return List of the found entities in the order of the supplied primary keys.
+     */
+    public List<T> findAllByPrimaryKeys(@NotNull Collection<PrimaryKey<R, S>> primaryKeys) {
+        requireSortKey("findAllByPrimaryKeys(primaryKeys)");
+        List<Key> keys = primaryKeys.stream()
+                .map(primaryKey -> getKey(primaryKey.partitionKey(), primaryKey.sortKey()))
+                .toList();
+        return call("findAllByPrimaryKeys", () -> inKeyOrder(keys, findAllByKeys(keys)));
+    }
+
+    private List<T> inKeyOrder(List<Key> keys, Map<Key, T> found) {
+        return keys.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Runs a Query on the partition key and optional sort key condition.
+     *
+     * @param partitionKey     of the entities.
+     * @param sortKeyCondition condition on the sort key, null to match the whole item collection.
+     * @param requestConsumer  additional query settings.
+     * @return lazily paginated query result.
+     */
+    PageIterable<T> query(R partitionKey, SortKeyCondition<S> sortKeyCondition,
+                          Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+        return query(table, partitionKey, sortKeyCondition, requestConsumer);
+    }
+
+    /**
+     * Runs a Query on the primary key of the given view of the mapped table, the table itself or a projection.
+     */
+    <P> PageIterable<P> query(DynamoDbTable<P> target, Object partitionKey, SortKeyCondition<?> sortKeyCondition,
+                              Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+        QueryConditional queryConditional = getQueryConditional(partitionKey, sortKeyCondition);
+        return target.query(requestConsumer.andThen(r -> r
+                .queryConditional(queryConditional)
+                .consistentRead(consistentRead)));
+    }
+
+    /**
+     * Runs a Query on a secondary index. Consistent reads are only requested from local secondary indices.
+     *
+     * @param indexName        name of the secondary index.
+     * @param partitionKey     value of the index partition key.
+     * @param sortKeyCondition condition on the index sort key, null to match all items of the partition.
+     * @param requestConsumer  additional query settings.
+     * @return lazily paginated query result.
+     */
+    PageIterable<T> queryIndex(String indexName, Object partitionKey, SortKeyCondition<?> sortKeyCondition,
+                               Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+        return queryIndex(table, indexName, partitionKey, sortKeyCondition, requestConsumer);
+    }
+
+    <P> PageIterable<P> queryIndex(DynamoDbTable<P> target, String indexName, Object partitionKey,
+                                   SortKeyCondition<?> sortKeyCondition,
+                                   Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+        DDbIndex index = index(indexName);
+        if (null != sortKeyCondition && !index.hasSortKey()) {
+            throw new DDbRepoException("Index %s of %s has no sort key to apply %s to.".formatted(
+                    indexName, entityClassName, sortKeyCondition),
+                    """
+                            Declare the index sort key with DynamoDbSecondarySortKey, or query the index by its
+                            partition key only.
+                            """);
+        }
+        QueryConditional queryConditional = getQueryConditional(partitionKey, sortKeyCondition);
+        return PageIterable.create(target.index(indexName).query(requestConsumer.andThen(r -> r
+                .queryConditional(queryConditional)
+                .consistentRead(consistentRead && !index.global()))));
+    }
+
+    /**
+     * View of the mapped table reading only the attributes of the projection type, created once per type.
+     */
+    <P> DynamoDbTable<P> projectionTable(Class<P> projection) {
+        return (DynamoDbTable<P>) projectionTables.computeIfAbsent(projection, type ->
+                dynamoDbEnhancedClient.table(table.tableName(), DDbProjectionSchema.of(type, table.tableSchema())));
+    }
+
+    private static <P> Consumer<QueryEnhancedRequest.Builder> projectedAttributes(DynamoDbTable<P> target) {
+        return r -> r.attributesToProject(target.tableSchema().attributeNames());
+    }
+
+    DDbIndex index(String indexName) {
+        DDbIndex index = indices.get(indexName);
+        if (null == index) {
+            throw new DDbRepoException("No secondary index %s declared in the entity class %s.".formatted(
+                    indexName, entityClassName),
+                    """
+                            Annotate the get method of the index key with DynamoDbSecondaryPartitionKey or
+                            DynamoDbSecondarySortKey naming the index in indexNames. Declared indices: %s
+                            """.formatted(indices.keySet()));
+        }
+        return index;
+    }
+
+    /**
+     * Single item lookup. The near cache, coalesced lookups and batched lookups share what they read between
+     * callers, so they pass on the attributes of the item and every caller gets an entity of its own.
+     */
+    Optional<T> getItem(Key key) {
+        if (null != nearCache) {
+            return nearCache.get(key, this::loadAttributes);
+        }
+        if (null == readBatcher && !settings.getRead().isCoalesce()) {
+            T item = readItem(key);
+            if (null != item && null != snapshots) {
+                snapshots.capture(key, item);
+            }
+            return Optional.ofNullable(item);
+        }
+        return loadAttributes(key).map(table.tableSchema()::mapToItem);
+    }
+
+    /**
+     * GetItem call, shared by concurrent callers of the same key when aws.dynamodb.read.coalesce is on. The
+     * consistentRead flag is fixed per repository, so the key alone identifies the call.
+     */
+    private Optional<Map<String, AttributeValue>> loadAttributes(Key key) {
+        if (settings.getRead().isCoalesce()) {
+            return singleFlight.execute(key, () -> fetchAttributes(key));
+        }
+        return fetchAttributes(key);
+    }
+
+    /**
+     * Sends the lookup on its own, or with the lookups of other threads in one BatchGetItem when
+     * aws.dynamodb.read.batch-window is set. The snapshot for saveChanges is taken here from the item as read.
+     */
+    private Optional<Map<String, AttributeValue>> fetchAttributes(Key key) {
+        if (null != readBatcher) {
+            return readBatcher.get(key);
+        }
+        return Optional.ofNullable(readItem(key)).map(item -> attributesAsRead(key, item));
+    }
+
+    private T readItem(Key key) {
+        return table.getItem(r -> r.consistentRead(consistentRead).key(key));
+    }
+
+    private Map<Key, Map<String, AttributeValue>> readBatch(List<Key> keys) {
+        Map<Key, Map<String, AttributeValue>> found = new HashMap<>();
+        batchReader().read(keys).forEach((key, item) -> found.put(key, attributesAsRead(key, item)));
+        return found;
+    }
+
+    private Map<String, AttributeValue> attributesAsRead(Key key, T item) {
+        Map<String, AttributeValue> attributes = table.tableSchema().itemToMap(item, true);
+        if (null != snapshots) {
+            snapshots.put(key, attributes);
+        }
+        return attributes;
+    }
+
+    /**
+     * Existence check reading only the partition key attribute. A cached lookup answers without a request, a
+     * miss is not put into the near cache since no entity was read. Without the low level client the whole item is
+     * read through the enhanced client.
+     */
+    boolean exists(Key key) {
+        if (null != nearCache) {
+            Boolean cached = nearCache.isPresent(key);
+            if (null != cached) {
+                return cached;
+            }
+        }
+        if (null == dynamoDbClient) {
+            return null != readItem(key);
+        }
+        TableMetadata tableMetadata = table.tableSchema().tableMetadata();
+        GetItemResponse response = dynamoDbClient.getItem(r -> r
+                .tableName(table.tableName())
+                .key(key.keyMap(table.tableSchema(), TableMetadata.primaryIndexName()))
+                .projectionExpression("#pk")
+                .expressionAttributeNames(Map.of("#pk", tableMetadata.primaryPartitionKey()))
+                .consistentRead(consistentRead));
+        return response.hasItem() && !response.item().isEmpty();
+    }
+
+    /**
+     * Query selecting COUNT on the table, or on a secondary index when index is not null.
+     */
+    private long countQuery(DDbIndex index, Object partitionKey, SortKeyCondition<?> sortKeyCondition) {
+        if (null == dynamoDbClient) {
+            Consumer<QueryEnhancedRequest.Builder> keysOnly = r -> r.attributesToProject(keyAttributes());
+            PageIterable<T> pages = null == index
+                    ? query(table, partitionKey, sortKeyCondition, keysOnly)
+                    : queryIndex(index.name(), partitionKey, sortKeyCondition, keysOnly);
+            return pages.stream().mapToLong(page -> page.items().size()).sum();
+        }
+        String indexName = null == index ? TableMetadata.primaryIndexName() : index.name();
+        Expression keyCondition = getQueryConditional(partitionKey, sortKeyCondition)
+                .expression(table.tableSchema(), indexName);
+        QueryRequest request = QueryRequest.builder()
+                .tableName(table.tableName())
+                .indexName(null == index ? null : index.name())
+                .keyConditionExpression(keyCondition.expression())
+                .expressionAttributeNames(keyCondition.expressionNames())
+                .expressionAttributeValues(keyCondition.expressionValues())
+                .consistentRead(consistentRead && (null == index || !index.global()))
+                .build();
+        return new DDbCount(dynamoDbClient, 1, new DDbCapacityBudget(0)).query(request);
+    }
+
+    private List<String> keyAttributes() {
+        return List.copyOf(table.tableSchema().tableMetadata().primaryKeys());
+    }
+
+    /**
+     * Drops what is cached or in flight for the key, so the next lookup reads what was just written.
+     */
+    void invalidateCache(Key key) {
+        singleFlight.forget(key);
+        if (null != snapshots) {
+            snapshots.invalidate(key);
+        }
+        if (null != nearCache) {
+            nearCache.invalidate(key);
+        }
+    }
+
+    void invalidateCache(Iterable<T> entities) {
+        entities.forEach(entity -> invalidateCache(table.keyFrom(entity)));
+    }
+
+    void invalidateCache() {
+        if (null != snapshots) {
+            snapshots.invalidateAll();
+        }
+        if (null != nearCache) {
+            nearCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Low level client behind the enhanced client, for calls the enhanced client does not offer.
+     */
+    DynamoDbClient dynamoDbClient() {
+        if (null == dynamoDbClient) {
+            throw new DDbRepoException("%s has no DynamoDbClient.".formatted(getClass().getSimpleName()),
+                    """
+                            Declare the repository as a Spring bean so the DynamoDbClient configured by this starter
+                            is injected, or call setDynamoDbClient with the client behind the DynamoDbEnhancedClient.
+                            """);
+        }
+        return dynamoDbClient;
+    }
+
+    DDbBatchReader<T> batchReader() {
+        return new DDbBatchReader<>(dynamoDbEnhancedClient, table, entityClass, consistentRead,
+                DDbBackoff.of(settings.getBatch()), settings.getBatch().getConcurrency());
+    }
+
+    void requirePositiveLimit(String method, int limit) {
+        if (limit <= 0) {
+            throw new DDbRepoException("""
+                                        
+                    Reason:
+                        Limit %d passed to %s of %s is not positive.
+                                        
+                    Recommended Action:
+                        Pass a limit of at least 1.
+                    """.formatted(limit, method, entityClassName));
+        }
+    }
+
+    /**
+     * Runs a full table Scan after applying aws.dynamodb.scan.policy.
+     *
+     * @param operation repository method requesting the scan, used in the log and the exception.
+     * @param requestConsumer scan request customizer.
+     * @return lazily paginated scan result.
+     */
+    PageIterable<T> scan(String operation, Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        checkScanPolicy(operation);
+        return table.scan(requestConsumer);
+    }
+
+    /**
+     * Scans the whole table after applying aws.dynamodb.scan.policy, in parallel segments and within the read
+     * capacity budget configured under aws.dynamodb.scan.
+     *
+     * @param operation repository method requesting the scan, used in the log and the exception.
+     * @param requestConsumer scan request customizer.
+     * @return Stream of the scanned entities, must be closed or fully consumed.
+     */
+    Stream<T> scanAll(String operation, Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        return scanAll(table, operation, requestConsumer);
+    }
+
+    <P> Stream<P> scanAll(DynamoDbTable<P> target, String operation,
+                          Consumer<ScanEnhancedRequest.Builder> requestConsumer) {
+        checkScanPolicy(operation);
+        DDbConfigurationProperty.Scan scan = settings.getScan();
+        DDbCapacityBudget readCapacityBudget = new DDbCapacityBudget(scan.getReadCapacityBudget());
+        if (scan.getParallelism() <= 1 && !readCapacityBudget.isLimited()) {
+            return target.scan(requestConsumer).items().stream();
+        }
+        return new DDbParallelScan<>(target, Math.max(1, scan.getParallelism()), readCapacityBudget)
+                .stream(requestConsumer);
+    }
+
+    void checkScanPolicy(String operation) {
+        checkScanPolicy(settings.getScan().getPolicy(), table.tableName(), operation);
     }
 
 
@@ -0,0 +1,60 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * Remembers the attributes of items as they were last loaded or saved, so saveChanges can send only what changed
+ * since. Bounded by size and age, a key without a snapshot is simply written in full.
+ *
+ * @param <T> entity type.
+ */
+class DDbSnapshotStore<T> {
+    private final TableSchema<T> tableSchema;
+    private final Cache<Key, Map<String, AttributeValue>> snapshots;
+
+    private DDbSnapshotStore(TableSchema<T> tableSchema, DDbConfigurationProperty.DirtyTracking settings) {
+        this.tableSchema = tableSchema;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .build();
+    }
+
+    /**
+     * @return the snapshot store, or null if dirty tracking is off.
+     */
+    static <T> DDbSnapshotStore<T> of(TableSchema<T> tableSchema, DDbConfigurationProperty.DirtyTracking settings) {
+        return settings.isEnabled() ? new DDbSnapshotStore<>(tableSchema, settings) : null;
+    }
+
+    void capture(Key key, T item) {
+        snapshots.put(key, attributes(item));
+    }
+
+    Map<String, AttributeValue> get(Key key) {
+        return snapshots.getIfPresent(key);
+    }
+
+    void put(Key key, Map<String, AttributeValue> attributes) {
+        snapshots.put(key, attributes);
+    }
+
+    void invalidate(Key key) {
+        snapshots.invalidate(key);
+    }
+
+    void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    Map<String, AttributeValue> attributes(T item) {
+        return tableSchema.itemToMap(item, true);
+    }
+}
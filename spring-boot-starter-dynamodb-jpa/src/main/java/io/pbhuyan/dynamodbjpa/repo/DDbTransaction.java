@@ -0,0 +1,361 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbOptimisticLockException;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.exception.DDbTransactionException;
+import io.pbhuyan.dynamodbjpa.model.UpdateSpec;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import io.pbhuyan.dynamodbjpa.support.DDbCallSite;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.annotations.NotNull;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.TransactionInProgressException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Collects puts, updates, deletes and condition checks on the tables of any number of {@link DDbCrudRepository}
+ * instances and writes them all or nothing in one TransactWriteItems call.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * new DDbTransaction()
+ *         .save(orderRepository, order)
+ *         .update(stockRepository, stockRepository.getKey("sku-1"), update -> update.increment("reserved", 1))
+ *         .conditionCheck(customerRepository, customerRepository.getKey("customerId"), Expression.builder()
+ *                 .expression("#status = :active")
+ *                 .putExpressionName("#status", "status")
+ *                 .putExpressionValue(":active", AttributeValue.fromS("ACTIVE"))
+ *                 .build())
+ *         .commit();
+ * }
+ * </pre>
+ *
+ * A commit is sent with a client request token and a commit cancelled by a conflicting transaction or throttling
+ * is resent with the same token as configured under aws.dynamodb.transaction, so a resend of a transaction that
+ * did succeed is not applied twice. Versioned entities are checked and incremented like
+ * {@link DDbCrudRepository#save(DDbEntity)} does. Items are written with the table schema only, enhanced client
+ * extensions other than versioning do not run. DynamoDB accepts at most 100 items per transaction and each item
+ * only once.
+ */
+@Slf4j
+public class DDbTransaction {
+    public static final int MAX_ITEMS = 100;
+
+    private static final Set<String> RETRYABLE_REASONS = Set.of(
+            "None", "TransactionConflict", "ThrottlingError", "ProvisionedThroughputExceeded");
+
+    private static final DDbCallSite COMMIT = new DDbCallSite(DDbTransaction.class, "commit", null, null);
+
+    private final List<Write> writes = new ArrayList<>();
+    private final Set<ItemId> items = new HashSet<>();
+
+    /**
+     * Puts the entity, replacing an item with the same primary key. If the entity has a version attribute, the item
+     * is only written if the stored version still matches and the entity receives the incremented version once the
+     * transaction is committed.
+     *
+     * @param repository of the entity.
+     * @param entity     to be inserted or overwritten.
+     * @return this transaction.
+     */
+    public <T extends DDbEntity> DDbTransaction save(@NotNull DDbCrudRepository<T, ?, ?> repository,
+                                                     @NotNull T entity) {
+        Key key = repository.table.keyFrom(entity);
+        Map<String, AttributeValue> item = new HashMap<>(repository.table.tableSchema().itemToMap(entity, true));
+        DDbVersioning<T> versioning = repository.versioning;
+        if (null == versioning) {
+            return add(repository, key, false, TransactWriteItem.builder()
+                            .put(p -> p.tableName(repository.table.tableName()).item(item))
+                            .build(),
+                    () -> snapshot(repository, key, entity));
+        }
+        Long version = versioning.current(entity);
+        long next = DDbVersioning.next(version);
+        item.put(versioning.attributeName(), AttributeValue.fromN(String.valueOf(next)));
+        Expression condition = versioning.expect(version);
+        return add(repository, key, true, TransactWriteItem.builder()
+                        .put(p -> p.tableName(repository.table.tableName()).item(item)
+                                .conditionExpression(condition.expression())
+                                .expressionAttributeNames(condition.expressionNames())
+                                .expressionAttributeValues(condition.expressionValues()))
+                        .build(),
+                () -> {
+                    versioning.set(entity, next);
+                    snapshot(repository, key, entity);
+                });
+    }
+
+    /**
+     * Applies a partial update to the item of the key. The transaction is cancelled if no such item exists, the
+     * version attribute of a versioned entity is incremented.
+     *
+     * @param repository of the entity.
+     * @param key        of the item, see {@link DDbBaseRepository#getKey}.
+     * @param update     A {@link Consumer} of {@link UpdateSpec} describing the changes.
+     * @return this transaction.
+     */
+    public DDbTransaction update(@NotNull DDbCrudRepository<?, ?, ?> repository, @NotNull Key key,
+                                 @NotNull Consumer<UpdateSpec> update) {
+        UpdateSpec spec = new UpdateSpec();
+        update.accept(spec);
+        if (spec.isEmpty()) {
+            throw new IllegalArgumentException("Update of %s in a transaction must change at least one attribute."
+                    .formatted(key));
+        }
+        if (null != repository.versioning) {
+            spec.increment(repository.versioning.attributeName(), 1);
+        }
+        DDbUpdateExpression expression = DDbUpdateExpression.of(spec, repository.table.tableSchema());
+        Expression condition = itemExists(repository);
+        Map<String, String> names = new HashMap<>(expression.names());
+        names.putAll(condition.expressionNames());
+        Map<String, AttributeValue> values = expression.values();
+        return add(repository, key, false, TransactWriteItem.builder()
+                        .update(u -> u.tableName(repository.table.tableName())
+                                .key(keyMap(repository, key))
+                                .updateExpression(expression.expression())
+                                .conditionExpression(condition.expression())
+                                .expressionAttributeNames(names)
+                                .expressionAttributeValues(values.isEmpty() ? null : values))
+                        .build(),
+                () -> {
+                });
+    }
+
+    /**
+     * Deletes the item of the entity. If the entity has a version attribute, the item is only deleted if the stored
+     * version still matches.
+     *
+     * @param repository of the entity.
+     * @param entity     to be deleted.
+     * @return this transaction.
+     */
+    public <T extends DDbEntity> DDbTransaction delete(@NotNull DDbCrudRepository<T, ?, ?> repository,
+                                                       @NotNull T entity) {
+        Key key = repository.table.keyFrom(entity);
+        if (null == repository.versioning) {
+            return add(repository, key, false, TransactWriteItem.builder()
+                            .delete(d -> d.tableName(repository.table.tableName()).key(keyMap(repository, key)))
+                            .build(),
+                    () -> {
+                    });
+        }
+        Expression condition = repository.versioning.expect(repository.versioning.current(entity));
+        return add(repository, key, true, TransactWriteItem.builder()
+                        .delete(d -> d.tableName(repository.table.tableName()).key(keyMap(repository, key))
+                                .conditionExpression(condition.expression())
+                                .expressionAttributeNames(condition.expressionNames())
+                                .expressionAttributeValues(condition.expressionValues()))
+                        .build(),
+                () -> {
+                });
+    }
+
+    /**
+     * Deletes the item of the key. The transaction is cancelled if no such item exists.
+     *
+     * @param repository of the entity.
+     * @param key        of the item, see {@link DDbBaseRepository#getKey}.
+     * @return this transaction.
+     */
+    public DDbTransaction delete(@NotNull DDbCrudRepository<?, ?, ?> repository, @NotNull Key key) {
+        Expression condition = itemExists(repository);
+        return add(repository, key, false, TransactWriteItem.builder()
+                        .delete(d -> d.tableName(repository.table.tableName()).key(keyMap(repository, key))
+                                .conditionExpression(condition.expression())
+                                .expressionAttributeNames(condition.expressionNames()))
+                        .build(),
+                () -> {
+                });
+    }
+
+    /**
+     * Cancels the transaction unless the item of the key matches the condition. The item itself is not written.
+     *
+     * @param repository of the entity.
+     * @param key        of the item, see {@link DDbBaseRepository#getKey}.
+     * @param condition  the item has to satisfy.
+     * @return this transaction.
+     */
+    public DDbTransaction conditionCheck(@NotNull DDbCrudRepository<?, ?, ?> repository, @NotNull Key key,
+                                         @NotNull Expression condition) {
+        return add(repository, key, false, TransactWriteItem.builder()
+                        .conditionCheck(c -> c.tableName(repository.table.tableName()).key(keyMap(repository, key))
+                                .conditionExpression(condition.expression())
+                                .expressionAttributeNames(condition.expressionNames())
+                                .expressionAttributeValues(condition.expressionValues()))
+                        .build(),
+                () -> {
+                });
+    }
+
+    /**
+     * @return number of items collected so far.
+     */
+    public int size() {
+        return writes.size();
+    }
+
+    /**
+     * Writes all collected items atomically in one TransactWriteItems call. DDbTransactionException is thrown if
+     * DynamoDB cancels the transaction, DDbOptimisticLockException if the cancellation was caused by the version of
+     * an entity. The transaction is empty afterwards and can be reused.
+     */
+    public void commit() {
+        if (writes.size() > MAX_ITEMS) {
+            throw new DDbRepoException("Transaction of %d items exceeds the DynamoDB limit of %d items."
+                    .formatted(writes.size(), MAX_ITEMS),
+                    """
+                            Split the work into several transactions, or call commitInChunks if the items
+                            only need to be written atomically per chunk of 100.
+                            """);
+        }
+        try {
+            write(writes);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Writes the collected items in consecutive transactions of at most 100 items each. Every chunk is atomic, the
+     * whole is not: if a chunk fails, the chunks before it stay written and the ones after it are not sent.
+     */
+    public void commitInChunks() {
+        try {
+            for (int from = 0; from < writes.size(); from += MAX_ITEMS) {
+                write(writes.subList(from, Math.min(writes.size(), from + MAX_ITEMS)));
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    private DDbTransaction add(DDbCrudRepository<?, ?, ?> repository, Key key, boolean versioned,
+                               TransactWriteItem item, Runnable onCommit) {
+        if (!items.add(new ItemId(repository.table.tableName(), key))) {
+            throw new IllegalArgumentException("""
+                    Item %s of table %s is already part of the transaction, DynamoDB accepts each item only once."""
+                    .formatted(key, repository.table.tableName()));
+        }
+        writes.add(new Write(repository, key, versioned, item, onCommit));
+        return this;
+    }
+
+    private void write(List<Write> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        DDbCrudRepository<?, ?, ?> first = chunk.get(0).repository();
+        DynamoDbClient client = first.dynamoDbClient();
+        DDbBackoff backoff = DDbBackoff.of(first.settings.getTransaction());
+        List<TransactWriteItem> transactItems = chunk.stream().map(Write::item).toList();
+        // Reused by every resend, DynamoDB applies a token only once within ten minutes
+        String token = UUID.randomUUID().toString();
+        // Entities still buffered by a write-behind repository are written first, discarding them would lose them
+        // if the transaction is cancelled and a later flush would overwrite what the transaction wrote
+        chunk.stream().map(Write::repository).distinct().forEach(DDbCrudRepository::flush);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    COMMIT.call(() -> client.transactWriteItems(r -> r
+                            .clientRequestToken(token)
+                            .transactItems(transactItems)));
+                    break;
+                } catch (TransactionCanceledException e) {
+                    if (!isRetryable(e) || !backoff.canRetry(attempt)) {
+                        throw failure(chunk, e);
+                    }
+                } catch (TransactionInProgressException e) {
+                    if (!backoff.canRetry(attempt)) {
+                        throw e;
+                    }
+                } catch (SdkClientException e) {
+                    if (!e.retryable() || !backoff.canRetry(attempt)) {
+                        throw e;
+                    }
+                }
+                log.debug("Transaction of {} items not committed, resending.", chunk.size());
+                backoff.pause(attempt);
+            }
+        } finally {
+            chunk.forEach(write -> write.repository().invalidateCache(write.key()));
+        }
+        chunk.forEach(write -> write.onCommit().run());
+    }
+
+    private static boolean isRetryable(TransactionCanceledException e) {
+        return e.hasCancellationReasons()
+                && e.cancellationReasons().stream().map(CancellationReason::code).allMatch(RETRYABLE_REASONS::contains)
+                && e.cancellationReasons().stream().map(CancellationReason::code).anyMatch(code -> !"None".equals(code));
+    }
+
+    private static RuntimeException failure(List<Write> chunk, TransactionCanceledException e) {
+        List<String> reasons = e.hasCancellationReasons()
+                ? e.cancellationReasons().stream().map(CancellationReason::code).toList()
+                : List.of();
+        List<String> causes = new ArrayList<>();
+        for (int i = 0; i < reasons.size() && i < chunk.size(); i++) {
+            Write write = chunk.get(i);
+            if ("None".equals(reasons.get(i))) {
+                continue;
+            }
+            if (write.versioned() && "ConditionalCheckFailed".equals(reasons.get(i))) {
+                return new DDbOptimisticLockException("""
+                        %s with key %s was changed or removed by someone else since it was read.""".formatted(
+                        write.repository().entityClassName, write.key()), e);
+            }
+            causes.add("%s %s: %s".formatted(write.repository().table.tableName(), write.key(), reasons.get(i)));
+        }
+        return new DDbTransactionException("Transaction of %d items was cancelled, %s".formatted(
+                chunk.size(), causes.isEmpty() ? e.getMessage() : String.join(", ", causes)), reasons, e);
+    }
+
+    private void clear() {
+        writes.clear();
+        items.clear();
+    }
+
+    private static <T extends DDbEntity> void snapshot(DDbCrudRepository<T, ?, ?> repository, Key key, T entity) {
+        if (null != repository.snapshots) {
+            repository.snapshots.capture(key, entity);
+        }
+    }
+
+    private static Expression itemExists(DDbCrudRepository<?, ?, ?> repository) {
+        return Expression.builder()
+                .expression("attribute_exists(#u_pk)")
+                .putExpressionName("#u_pk", repository.table.tableSchema().tableMetadata().primaryPartitionKey())
+                .build();
+    }
+
+    static Map<String, AttributeValue> keyMap(DDbReadRepository<?, ?, ?> repository, Key key) {
+        return key.keyMap(repository.table.tableSchema(), TableMetadata.primaryIndexName());
+    }
+
+    private record ItemId(String tableName, Key key) {
+    }
+
+    private record Write(DDbCrudRepository<?, ?, ?> repository, Key key, boolean versioned, TransactWriteItem item,
+                         Runnable onCommit) {
+    }
+}
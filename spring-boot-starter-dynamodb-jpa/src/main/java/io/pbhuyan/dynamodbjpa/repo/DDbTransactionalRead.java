@@ -0,0 +1,124 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.exception.DDbTransactionException;
+import io.pbhuyan.dynamodbjpa.support.DDbCallSite;
+import software.amazon.awssdk.annotations.NotNull;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactGetItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads items of the tables of any number of repositories in one TransactGetItems call. All items are read at the
+ * same point in time, none of them reflects only part of a transaction written concurrently.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * DDbTransactionalRead read = new DDbTransactionalRead();
+ * DDbTransactionalRead.Handle<Order> order = read.add(orderRepository, orderRepository.getKey("orderId"));
+ * DDbTransactionalRead.Handle<Stock> stock = read.add(stockRepository, stockRepository.getKey("sku-1"));
+ * read.execute();
+ * Optional<Order> found = order.get();
+ * }
+ * </pre>
+ *
+ * Items are read from DynamoDB directly, bypassing the near cache. At most 100 items can be read at once.
+ */
+public class DDbTransactionalRead {
+    private static final DDbCallSite EXECUTE = new DDbCallSite(DDbTransactionalRead.class, "execute", null, null);
+
+    private final List<Handle<?>> handles = new ArrayList<>();
+
+    /**
+     * @param repository of the entity.
+     * @param key        of the item, see {@link DDbBaseRepository#getKey}.
+     * @return handle giving access to the entity once {@link #execute()} returned.
+     */
+    public <T extends DDbEntity> Handle<T> add(@NotNull DDbReadRepository<T, ?, ?> repository, @NotNull Key key) {
+        Handle<T> handle = new Handle<>(repository, key);
+        handles.add(handle);
+        return handle;
+    }
+
+    /**
+     * Reads all added items. DDbTransactionException is thrown if DynamoDB cancels the read, for example because
+     * one of the items is being written by a transaction.
+     */
+    public void execute() {
+        if (handles.isEmpty()) {
+            return;
+        }
+        if (handles.size() > DDbTransaction.MAX_ITEMS) {
+            throw new DDbRepoException("Transactional read of %d items exceeds the DynamoDB limit of %d items."
+                    .formatted(handles.size(), DDbTransaction.MAX_ITEMS),
+                    """
+                            Read the items in several transactional reads, or with findAllByKeys if they
+                            do not need to be read at the same point in time.
+                            """);
+        }
+        List<TransactGetItem> items = handles.stream()
+                .map(handle -> TransactGetItem.builder()
+                        .get(g -> g.tableName(handle.repository.table.tableName())
+                                .key(DDbTransaction.keyMap(handle.repository, handle.key)))
+                        .build())
+                .toList();
+        List<ItemResponse> responses;
+        try {
+            responses = EXECUTE.call(() -> handles.get(0).repository.dynamoDbClient()
+                    .transactGetItems(r -> r.transactItems(items))
+                    .responses());
+        } catch (TransactionCanceledException e) {
+            List<String> reasons = e.hasCancellationReasons()
+                    ? e.cancellationReasons().stream().map(CancellationReason::code).toList()
+                    : List.of();
+            throw new DDbTransactionException("Transactional read of %d items was cancelled: %s"
+                    .formatted(handles.size(), reasons), reasons, e);
+        }
+        for (int i = 0; i < handles.size(); i++) {
+            handles.get(i).complete(responses.get(i));
+        }
+    }
+
+    /**
+     * Entity read by a {@link DDbTransactionalRead}.
+     *
+     * @param <T> entity type.
+     */
+    public static final class Handle<T extends DDbEntity> {
+        private final DDbReadRepository<T, ?, ?> repository;
+        private final Key key;
+        private boolean done;
+        private T entity;
+
+        private Handle(DDbReadRepository<T, ?, ?> repository, Key key) {
+            this.repository = repository;
+            this.key = key;
+        }
+
+        private void complete(ItemResponse response) {
+            entity = null == response || !response.hasItem() || response.item().isEmpty()
+                    ? null
+                    : repository.table.tableSchema().mapToItem(response.item());
+            done = true;
+        }
+
+        /**
+         * @return the entity, empty if no item matched the key.
+         */
+        public Optional<T> get() {
+            if (!done) {
+                throw new IllegalStateException("Transactional read of %s has not been executed yet.".formatted(key));
+            }
+            return Optional.ofNullable(entity);
+        }
+    }
+}
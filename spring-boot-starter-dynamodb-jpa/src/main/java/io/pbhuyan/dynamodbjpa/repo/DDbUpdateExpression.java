@@ -0,0 +1,114 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.model.UpdateSpec;
+import org.springframework.util.ClassUtils;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.DefaultAttributeConverterProvider;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Translates an {@link UpdateSpec} into an UpdateExpression with placeholder names and values. Values are
+ * converted with the converter of the mapped attribute so they are stored exactly like save would store them,
+ * values of unmapped or nested attributes fall back to the SDK default converters.
+ *
+ * @param expression UpdateExpression.
+ * @param names      ExpressionAttributeNames.
+ * @param values     ExpressionAttributeValues.
+ */
+record DDbUpdateExpression(String expression, Map<String, String> names, Map<String, AttributeValue> values) {
+    private static final String ZERO = ":u_zero";
+
+    static DDbUpdateExpression of(UpdateSpec spec, TableSchema<?> tableSchema) {
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, AttributeValue> values = new LinkedHashMap<>();
+        Map<String, String> namePlaceholders = new HashMap<>();
+        List<String> set = new ArrayList<>();
+        List<String> add = new ArrayList<>();
+        List<String> delete = new ArrayList<>();
+        List<String> remove = new ArrayList<>();
+        for (UpdateSpec.Action action : spec.actions()) {
+            StringJoiner path = new StringJoiner(".");
+            for (String segment : action.attribute().split("\\.")) {
+                path.add(namePlaceholders.computeIfAbsent(segment, s -> {
+                    String placeholder = "#u" + names.size();
+                    names.put(placeholder, s);
+                    return placeholder;
+                }));
+            }
+            String value = ":u" + values.size();
+            if (action.operation() != UpdateSpec.Operation.REMOVE) {
+                values.put(value, toAttributeValue(tableSchema, action));
+            }
+            switch (action.operation()) {
+                case SET -> set.add("%s = %s".formatted(path, value));
+                case SET_IF_NOT_EXISTS -> set.add("%s = if_not_exists(%s, %s)".formatted(path, path, value));
+                case INCREMENT -> {
+                    values.putIfAbsent(ZERO, AttributeValue.fromN("0"));
+                    set.add("%s = if_not_exists(%s, %s) + %s".formatted(path, path, ZERO, value));
+                }
+                case ADD -> add.add("%s %s".formatted(path, value));
+                case DELETE -> delete.add("%s %s".formatted(path, value));
+                case REMOVE -> remove.add(path.toString());
+            }
+        }
+        StringJoiner expression = new StringJoiner(" ");
+        appendClause(expression, "SET", set);
+        appendClause(expression, "ADD", add);
+        appendClause(expression, "DELETE", delete);
+        appendClause(expression, "REMOVE", remove);
+        return new DDbUpdateExpression(expression.toString(), names, values);
+    }
+
+    private static void appendClause(StringJoiner expression, String keyword, List<String> actions) {
+        if (!actions.isEmpty()) {
+            expression.add(keyword + " " + String.join(", ", actions));
+        }
+    }
+
+    private static AttributeValue toAttributeValue(TableSchema<?> tableSchema, UpdateSpec.Action action) {
+        Object value = action.value();
+        if (value instanceof AttributeValue attributeValue) {
+            return attributeValue;
+        }
+        if (action.operation() == UpdateSpec.Operation.INCREMENT) {
+            return AttributeValue.fromN(value.toString());
+        }
+        // The mapped converter only serves values of the mapped type, an Integer for a Long attribute or an
+        // unmapped attribute falls back to the default converter of the value's own type
+        if (!action.attribute().contains(".") && tableSchema.attributeNames().contains(action.attribute())) {
+            AttributeConverter<?> converter = tableSchema.converterForAttribute(action.attribute());
+            if (ClassUtils.resolvePrimitiveIfNecessary(converter.type().rawClass()).isInstance(value)) {
+                return ((AttributeConverter<Object>) converter).transformFrom(value);
+            }
+        }
+        return defaultAttributeValue(value);
+    }
+
+    static AttributeValue defaultAttributeValue(Object value) {
+        if (value instanceof Set<?> elements && !elements.isEmpty()) {
+            Object first = elements.iterator().next();
+            if (first instanceof Number) {
+                return AttributeValue.fromNs(toStrings(elements));
+            }
+            return AttributeValue.fromSs(toStrings(elements));
+        }
+        AttributeConverter<Object> converter = (AttributeConverter<Object>) DefaultAttributeConverterProvider.create()
+                .converterFor(EnhancedType.of(value.getClass()));
+        return converter.transformFrom(value);
+    }
+
+    private static List<String> toStrings(Collection<?> elements) {
+        return elements.stream().map(String::valueOf).toList();
+    }
+}
@@ -0,0 +1,139 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import jakarta.persistence.Version;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.beans.Introspector;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Version attribute of an entity, declared with {@link DynamoDbVersionAttribute} or {@link Version} on the get
+ * method or field. With DynamoDbVersionAttribute the enhanced client's VersionedRecordExtension already makes
+ * putItem conditional, with Version the repository does it. Either way the version starts at 1 and is incremented
+ * on every write, and the entity is updated with the version that was written.
+ *
+ * @param <T> entity type.
+ */
+class DDbVersioning<T> {
+    private static final List<Class<?>> VERSION_TYPES = List.of(Integer.class, Long.class, int.class, long.class);
+
+    private final String attributeName;
+    private final boolean handledByExtension;
+    private final Method getter;
+    private final Method setter;
+
+    private DDbVersioning(String attributeName, boolean handledByExtension, Method getter, Method setter) {
+        this.attributeName = attributeName;
+        this.handledByExtension = handledByExtension;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * @return versioning of the entity class, or null if it has no version attribute.
+     */
+    static <T> DDbVersioning<T> of(Class<T> entityClass) {
+        Method getter = Stream.of(entityClass.getMethods())
+                .filter(m -> m.getName().startsWith("get") && m.getParameterCount() == 0)
+                .filter(m -> m.isAnnotationPresent(DynamoDbVersionAttribute.class)
+                        || m.isAnnotationPresent(Version.class)
+                        || isVersionField(entityClass, Introspector.decapitalize(m.getName().substring(3))))
+                .findAny().orElse(null);
+        if (null == getter) {
+            return null;
+        }
+        String propertyName = getter.getName().substring(3);
+        if (!VERSION_TYPES.contains(getter.getReturnType())) {
+            throw new DDbRepoException("Version attribute %s of %s has the unsupported type %s.".formatted(
+                    propertyName, entityClass.getSimpleName(), getter.getReturnType().getSimpleName()),
+                    """
+                            Use Integer or Long for the version attribute.
+                            """);
+        }
+        Method setter;
+        try {
+            setter = entityClass.getMethod("set" + propertyName, getter.getReturnType());
+        } catch (NoSuchMethodException e) {
+            throw new DDbRepoException("Version attribute %s of %s has no set method.".formatted(
+                    propertyName, entityClass.getSimpleName()),
+                    """
+                            Add a set method for the version attribute so the written version can be stored in the entity.
+                            """);
+        }
+        DynamoDbAttribute renamed = getter.getAnnotation(DynamoDbAttribute.class);
+        String attributeName = null != renamed ? renamed.value() : Introspector.decapitalize(propertyName);
+        return new DDbVersioning<>(attributeName, getter.isAnnotationPresent(DynamoDbVersionAttribute.class),
+                getter, setter);
+    }
+
+    private static boolean isVersionField(Class<?> entityClass, String fieldName) {
+        for (Class<?> type = entityClass; null != type && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                return field.isAnnotationPresent(Version.class);
+            } catch (NoSuchFieldException e) {
+                // declared in a superclass, if at all
+            }
+        }
+        return false;
+    }
+
+    String attributeName() {
+        return attributeName;
+    }
+
+    /**
+     * @return true if VersionedRecordExtension conditions and increments the version on putItem.
+     */
+    boolean handledByExtension() {
+        return handledByExtension;
+    }
+
+    Long current(T entity) {
+        try {
+            Number version = (Number) getter.invoke(entity);
+            return null == version ? null : version.longValue();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new DDbRepoException("Version attribute %s could not be read: %s".formatted(attributeName, e));
+        }
+    }
+
+    static long next(Long current) {
+        return null == current ? 1 : current + 1;
+    }
+
+    void set(T entity, Long version) {
+        Class<?> type = setter.getParameterTypes()[0];
+        Object value = null == version ? null
+                : type == Integer.class || type == int.class ? (Object) version.intValue() : version;
+        if (null == value && type.isPrimitive()) {
+            value = type == int.class ? 0 : 0L;
+        }
+        try {
+            setter.invoke(entity, value);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new DDbRepoException("Version attribute %s could not be set: %s".formatted(attributeName, e));
+        }
+    }
+
+    /**
+     * @return condition matching only an item stored with the given version, or no item at all for null.
+     */
+    Expression expect(Long version) {
+        Expression.Builder condition = Expression.builder().putExpressionName("#v_version", attributeName);
+        if (null == version || version == 0) {
+            return condition.expression("attribute_not_exists(#v_version)").build();
+        }
+        return condition.expression("#v_version = :v_version")
+                .putExpressionValue(":v_version", AttributeValue.fromN(version.toString()))
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes save of the annotated {@link DDbCrudRepository} asynchronous. Saved entities are buffered, repeated saves
+ * of the same key within a flush keep only the last entity, and the buffer is written through BatchWriteItem when
+ * it reaches flushSize entries or flushInterval has passed. save blocks while the buffer holds capacity entries.
+ * Unset attributes fall back to aws.dynamodb.write-behind.*.
+ * <br><br/>
+ * Reads do not see buffered entities until they are flushed. Call flush() where a write must be visible.
+ * <br><br/>
+ * Example:
+ * <pre>
+ * {@code
+ *
+ * @Repository
+ * @DDbWriteBehind(flushInterval = "500ms", flushSize = 100)
+ * public class EventRepository extends DDbCrudRepository<Event, String, Void> {
+ *     ...
+ * }
+ * }
+ * </pre>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DDbWriteBehind {
+
+    /**
+     * @return longest time an entity stays buffered, e.g. 500ms or 2s. Empty to use
+     * aws.dynamodb.write-behind.flush-interval.
+     */
+    String flushInterval() default "";
+
+    /**
+     * @return number of buffered entities that triggers a flush, -1 to use aws.dynamodb.write-behind.flush-size.
+     */
+    int flushSize() default -1;
+
+    /**
+     * @return number of buffered entities at which save blocks, -1 to use aws.dynamodb.write-behind.capacity.
+     */
+    int capacity() default -1;
+}
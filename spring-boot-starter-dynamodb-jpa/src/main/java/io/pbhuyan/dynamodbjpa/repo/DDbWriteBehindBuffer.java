@@ -0,0 +1,309 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.dynamodbjpa.model.DDbWriteBehindStats;
+import io.pbhuyan.dynamodbjpa.support.DDbBackoff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Buffers saved entities by primary key and writes them in the background through BatchWriteItem. A save of a
+ * key already buffered replaces the buffered entity. A flush is triggered once flushSize entities are buffered
+ * or flushInterval has passed, callers of put block while capacity entities are buffered.
+ * <p>
+ * Flushes never overlap. Items left unprocessed by BatchWriteItem, and items of a flush that failed with an
+ * exception, are put back unless the key was saved again in the meantime. Failed attempts are counted per key, an
+ * entity that could not be written max-retries times is dropped and counted as failed. After a flush that did not
+ * write everything the flusher backs off as configured under aws.dynamodb.batch.
+ *
+ * @param <T> entity type.
+ */
+@Slf4j
+class DDbWriteBehindBuffer<T> {
+    private static final int CLOSE_FLUSH_ATTEMPTS = 3;
+
+    private final String tableName;
+    private final Function<T, Key> keyOf;
+    private final Function<Collection<T>, DDbBatchWriteResult<T>> writer;
+    private final Consumer<Key> onWritten;
+    private final Duration flushInterval;
+    private final int flushSize;
+    private final int capacity;
+    private final DDbBackoff backoff;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Map<Key, T> pending = new LinkedHashMap<>();
+    private final Map<Key, Integer> failedAttempts = new HashMap<>();
+    private volatile boolean closed = false;
+    private final Thread flusher;
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedItems = new AtomicLong();
+    private final AtomicLong failedItems = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile Duration lastFlushLatency = Duration.ZERO;
+    private volatile int failedFlushes = 0;
+
+    private DDbWriteBehindBuffer(String tableName, Function<T, Key> keyOf,
+                                 Function<Collection<T>, DDbBatchWriteResult<T>> writer, Consumer<Key> onWritten,
+                                 Duration flushInterval, int flushSize, int capacity, DDbBackoff backoff) {
+        this.tableName = tableName;
+        this.keyOf = keyOf;
+        this.writer = writer;
+        this.onWritten = onWritten;
+        this.flushInterval = flushInterval;
+        this.flushSize = Math.max(1, flushSize);
+        this.capacity = Math.max(this.flushSize, capacity);
+        this.backoff = backoff;
+        this.flusher = Thread.ofPlatform().daemon().name("ddb-write-behind-" + tableName).start(this::runFlusher);
+    }
+
+    static <T> DDbWriteBehindBuffer<T> of(DDbWriteBehind annotation, DDbConfigurationProperty.WriteBehind settings,
+                                          DDbConfigurationProperty.Batch batch, String tableName, Function<T, Key> keyOf,
+                                          Function<Collection<T>, DDbBatchWriteResult<T>> writer,
+                                          Consumer<Key> onWritten) {
+        Duration flushInterval = StringUtils.hasText(annotation.flushInterval())
+                ? DurationStyle.detectAndParse(annotation.flushInterval())
+                : settings.getFlushInterval();
+        int flushSize = annotation.flushSize() >= 0 ? annotation.flushSize() : settings.getFlushSize();
+        int capacity = annotation.capacity() >= 0 ? annotation.capacity() : settings.getCapacity();
+        log.info("Write-behind enabled for table {}, flush every {} or {} entities, capacity {}.",
+                tableName, flushInterval, flushSize, capacity);
+        return new DDbWriteBehindBuffer<>(tableName, keyOf, writer, onWritten, flushInterval, flushSize, capacity,
+                DDbBackoff.of(batch));
+    }
+
+    void put(T entity) {
+        Key key = keyOf.apply(entity);
+        lock.lock();
+        try {
+            while (pending.size() >= capacity && !pending.containsKey(key)) {
+                requireOpen();
+                flushRequested.signal();
+                notFull.await();
+            }
+            requireOpen();
+            pending.put(key, entity);
+            failedAttempts.remove(key);
+            if (pending.size() >= flushSize) {
+                flushRequested.signal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDbException("Interrupted while waiting for the write-behind buffer of table %s."
+                    .formatted(tableName));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the buffered entity of the key, waiting for a flush in progress so it cannot land after the caller's
+     * own write of the key.
+     */
+    void discard(Key key) {
+        flushLock.lock();
+        try {
+            lock.lock();
+            try {
+                failedAttempts.remove(key);
+                if (null != pending.remove(key)) {
+                    notFull.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    void discardAll() {
+        flushLock.lock();
+        try {
+            lock.lock();
+            try {
+                pending = new LinkedHashMap<>();
+                failedAttempts.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes everything buffered so far on the calling thread.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            Map<Key, T> batch;
+            lock.lock();
+            try {
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background flusher and drains the buffer. Entities still unprocessed after a few attempts are
+     * logged as lost.
+     */
+    void close() {
+        closed = true;
+        lock.lock();
+        try {
+            flushRequested.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(flushInterval.plusSeconds(30).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 0; attempt < CLOSE_FLUSH_ATTEMPTS && queueDepth() > 0; attempt++) {
+            flush();
+        }
+        int lost = queueDepth();
+        if (lost > 0) {
+            log.error("{} buffered entities of table {} could not be written before shutdown.", lost, tableName);
+        }
+    }
+
+    DDbWriteBehindStats stats() {
+        return new DDbWriteBehindStats(queueDepth(), flushCount.get(), flushedItems.get(), failedItems.get(),
+                lastFlushLatency, Duration.ofNanos(totalFlushNanos.get()));
+    }
+
+    private int queueDepth() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        while (!closed) {
+            lock.lock();
+            try {
+                if (pending.size() < flushSize) {
+                    flushRequested.await(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            flush();
+            int failures = failedFlushes;
+            if (failures > 0 && !closed) {
+                try {
+                    Thread.sleep(backoff.delayMillis(failures - 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void write(Map<Key, T> batch) {
+        long start = System.nanoTime();
+        try {
+            DDbBatchWriteResult<T> result = writer.apply(batch.values());
+            flushedItems.addAndGet(result.processedCount());
+            failedFlushes = result.unprocessedItems().isEmpty() ? 0 : failedFlushes + 1;
+            retry(batch, result.unprocessedItems(), null);
+        } catch (RuntimeException e) {
+            failedFlushes++;
+            retry(batch, batch.values(), e);
+        } finally {
+            batch.keySet().forEach(onWritten);
+            long latency = System.nanoTime() - start;
+            flushCount.incrementAndGet();
+            totalFlushNanos.addAndGet(latency);
+            lastFlushLatency = Duration.ofNanos(latency);
+        }
+    }
+
+    /**
+     * Puts the entities that were not written back into the buffer, unless the key was saved again in the
+     * meantime, and drops those that already failed max-retries times.
+     */
+    private void retry(Map<Key, T> batch, Collection<T> unwritten, RuntimeException cause) {
+        int requeued = 0;
+        int dropped = 0;
+        lock.lock();
+        try {
+            for (T entity : unwritten) {
+                Key key = keyOf.apply(entity);
+                if (pending.containsKey(key)) {
+                    // A newer save of the same key has already replaced the entity that failed
+                    continue;
+                }
+                int attempts = failedAttempts.merge(key, 1, Integer::sum);
+                if (backoff.canRetry(attempts - 1)) {
+                    pending.put(key, entity);
+                    requeued++;
+                } else {
+                    failedAttempts.remove(key);
+                    dropped++;
+                }
+            }
+            batch.keySet().stream().filter(key -> !pending.containsKey(key)).forEach(failedAttempts::remove);
+        } finally {
+            lock.unlock();
+        }
+        failedItems.addAndGet(dropped);
+        if (requeued > 0) {
+            log.warn("{} entities of table {} were not written and are put back into the write-behind buffer.",
+                    requeued, tableName, cause);
+        }
+        if (dropped > 0) {
+            log.error("{} entities of table {} could not be written after all retries and are dropped.",
+                    dropped, tableName, cause);
+        }
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new DDbException("Write-behind buffer of table %s is closed.".formatted(tableName));
+        }
+    }
+}
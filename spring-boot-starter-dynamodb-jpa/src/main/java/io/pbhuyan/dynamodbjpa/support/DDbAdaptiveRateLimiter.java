@@ -0,0 +1,107 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket of capacity units per second whose rate adapts to throttling (AIMD). Every request takes one unit
+ * up front and settles the difference once its consumed capacity is known, the bucket may run into debt and then
+ * holds back further requests until it has refilled. A throttled request cuts the rate by decreaseFactor, down to
+ * minRatio of the configured rate, after which it grows back by increaseRatio of the configured rate per second.
+ * The bucket holds at most one second worth of units, which bounds bursts after idle periods.
+ */
+public class DDbAdaptiveRateLimiter {
+    private static final double RESERVED_UNITS = 1;
+
+    private final double maxRate;
+    private final double minRate;
+    private final double decreaseFactor;
+    private final double increasePerSecond;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    public DDbAdaptiveRateLimiter(double unitsPerSecond, double minRatio, double decreaseFactor, double increaseRatio) {
+        this.maxRate = unitsPerSecond;
+        this.minRate = Math.max(Double.MIN_NORMAL, unitsPerSecond * Math.min(1, Math.max(0, minRatio)));
+        this.decreaseFactor = Math.min(1, Math.max(0, decreaseFactor));
+        this.increasePerSecond = unitsPerSecond * Math.max(0, increaseRatio);
+        this.rate = unitsPerSecond;
+        this.tokens = unitsPerSecond;
+    }
+
+    /**
+     * @return true if the limiter limits the rate at all.
+     */
+    public boolean isLimited() {
+        return maxRate > 0;
+    }
+
+    /**
+     * Blocks the caller until the bucket is out of debt, then reserves one unit for the request.
+     */
+    public void acquire() {
+        if (!isLimited()) {
+            return;
+        }
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 0) {
+                    tokens -= RESERVED_UNITS;
+                    return;
+                }
+                waitNanos = (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.max(1, waitNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DDbException("Interrupted while waiting for table capacity.");
+            }
+        }
+    }
+
+    /**
+     * Charges what a request consumed beyond the unit reserved by acquire.
+     *
+     * @param consumedUnits capacity units reported by DynamoDB for the request.
+     */
+    public synchronized void consume(double consumedUnits) {
+        if (!isLimited()) {
+            return;
+        }
+        refill();
+        tokens -= consumedUnits - RESERVED_UNITS;
+    }
+
+    /**
+     * Multiplicative decrease after a throttled or retried request.
+     */
+    public synchronized void throttled() {
+        if (!isLimited()) {
+            return;
+        }
+        refill();
+        rate = Math.max(minRate, rate * decreaseFactor);
+        tokens = Math.min(tokens, rate);
+    }
+
+    /**
+     * @return current rate in capacity units per second.
+     */
+    public synchronized double rate() {
+        refill();
+        return rate;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        tokens = Math.min(rate, tokens + elapsedSeconds * rate);
+        rate = Math.min(maxRate, rate + elapsedSeconds * increasePerSecond);
+    }
+}
@@ -0,0 +1,68 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter used when DynamoDB hands back unprocessed items or keys, between
+ * attempts of an optimistic read-modify-write and between resends of a cancelled transaction.
+ * The n-th retry waits a random time between zero and min(maxDelay, baseDelay * 2^n).
+ */
+public class DDbBackoff {
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public DDbBackoff(int maxRetries, Duration baseDelay, Duration maxDelay) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = Math.max(1, baseDelay.toMillis());
+        this.maxDelayMillis = Math.max(baseDelayMillis, maxDelay.toMillis());
+    }
+
+    public static DDbBackoff of(DDbConfigurationProperty.Batch batch) {
+        return new DDbBackoff(batch.getMaxRetries(), batch.getBaseDelay(), batch.getMaxDelay());
+    }
+
+    public static DDbBackoff of(DDbConfigurationProperty.OptimisticLock optimisticLock) {
+        return new DDbBackoff(optimisticLock.getMaxRetries(), optimisticLock.getBaseDelay(),
+                optimisticLock.getMaxDelay());
+    }
+
+    public static DDbBackoff of(DDbConfigurationProperty.Transaction transaction) {
+        return new DDbBackoff(transaction.getMaxRetries(), transaction.getBaseDelay(), transaction.getMaxDelay());
+    }
+
+    /**
+     * @param attempt zero based number of retries already made.
+     * @return true if another retry is allowed.
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxRetries;
+    }
+
+    /**
+     * @param attempt zero based number of retries already made.
+     * @return jittered delay in milliseconds before the next retry.
+     */
+    public long delayMillis(int attempt) {
+        long ceiling = baseDelayMillis << Math.min(attempt, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(maxDelayMillis, ceiling) + 1);
+    }
+
+    /**
+     * Blocks the calling thread for the jittered delay of the given attempt.
+     *
+     * @param attempt zero based number of retries already made.
+     */
+    public void pause(int attempt) {
+        try {
+            Thread.sleep(delayMillis(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDbException("Interrupted while backing off before retrying.");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository method a DynamoDB request was sent from. The repository sets it once per call of one of its public
+ * methods, every request the call sends on the calling thread finds it without inspecting the stack. A method
+ * called by another repository method keeps the call site of the outer one, which is the method the application
+ * called. Requests sent from another thread, such as segments of a parallel scan or pages of a lazily consumed
+ * stream, have no call site unless the stream was attached to it with {@link #stream(Stream)}.
+ *
+ * @param repository class of the repository the method was called on.
+ * @param method     name of the repository method.
+ * @param tableName  table mapped by the repository, null for calls spanning tables such as transactions.
+ * @param entity     entity class mapped by the repository, null for calls spanning tables.
+ */
+public record DDbCallSite(Class<?> repository, String method, String tableName, Class<?> entity) {
+    private static final ThreadLocal<DDbCallSite> CURRENT = new ThreadLocal<>();
+
+    /**
+     * @return call site of the current thread, empty if no repository method is running on it.
+     */
+    public static Optional<DDbCallSite> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Runs the call with this call site set on the current thread, unless a call site is already set.
+     *
+     * @param call body of the repository method.
+     * @return result of the call.
+     */
+    public <V> V call(Supplier<V> call) {
+        if (null != CURRENT.get()) {
+            return call.get();
+        }
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Runs the call with this call site set on the current thread, unless a call site is already set.
+     *
+     * @param call body of the repository method.
+     */
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps a lazily consumed stream so that each element is fetched with this call site set, the pages it reads
+     * are tagged with the repository method even though they are requested after the method returned. The
+     * consumer of an element runs without the call site.
+     *
+     * @param stream result of the repository method.
+     * @return stream of the same elements, closing it closes the wrapped stream.
+     */
+    public <E> Stream<E> stream(Stream<E> stream) {
+        Spliterator<E> elements = stream.spliterator();
+        Spliterator<E> attached = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                elements.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+            @Override
+            public boolean tryAdvance(Consumer<? super E> action) {
+                List<E> next = new ArrayList<>(1);
+                if (!call(() -> elements.tryAdvance(next::add))) {
+                    return false;
+                }
+                action.accept(next.get(0));
+                return true;
+            }
+        };
+        return StreamSupport.stream(attached, false).onClose(stream::close);
+    }
+
+    /**
+     * @return simple name of the entity if the request went to the table of this call site, null otherwise.
+     */
+    public String entityOf(String requestTableName) {
+        return null != entity && requestTableName.equals(tableName) ? entity.getSimpleName() : null;
+    }
+}
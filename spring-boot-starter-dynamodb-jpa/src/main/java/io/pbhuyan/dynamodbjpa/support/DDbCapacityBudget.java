@@ -0,0 +1,50 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces consumers of a shared capacity budget expressed in capacity units per second. Every consumer reports
+ * what it consumed and is then held back until the budget has caught up, so the average rate across all
+ * consumers stays within the budget.
+ */
+public class DDbCapacityBudget {
+    private final double unitsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    public DDbCapacityBudget(double unitsPerSecond) {
+        this.unitsPerSecond = unitsPerSecond;
+    }
+
+    /**
+     * @return true if the budget limits the rate at all.
+     */
+    public boolean isLimited() {
+        return unitsPerSecond > 0;
+    }
+
+    /**
+     * Records consumed capacity and blocks the caller for as long as the budget is overdrawn.
+     *
+     * @param consumedUnits capacity units consumed by the last request.
+     */
+    public void consume(double consumedUnits) {
+        if (!isLimited() || consumedUnits <= 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextFreeNanos);
+            nextFreeNanos = start + (long) (consumedUnits / unitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+            waitNanos = nextFreeNanos - now;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DDbException("Interrupted while waiting for read capacity budget.");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbException;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes a LastEvaluatedKey into a compact URL-safe token and back. Key attributes are always of type S, N or B,
+ * each one is written as name, type and value and the bytes are Base64 URL encoded without padding.
+ */
+public final class DDbContinuationToken {
+    private static final byte VERSION = 1;
+
+    private DDbContinuationToken() {
+    }
+
+    /**
+     * @param lastEvaluatedKey LastEvaluatedKey of a Query or Scan page, may be null or empty.
+     * @return token, null when there is no further page.
+     */
+    public static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (null == lastEvaluatedKey || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(lastEvaluatedKey.size());
+            for (Map.Entry<String, AttributeValue> entry : lastEvaluatedKey.entrySet()) {
+                AttributeValue value = entry.getValue();
+                out.writeUTF(entry.getKey());
+                if (null != value.s()) {
+                    out.writeByte('S');
+                    out.writeUTF(value.s());
+                } else if (null != value.n()) {
+                    out.writeByte('N');
+                    out.writeUTF(value.n());
+                } else if (null != value.b()) {
+                    byte[] binary = value.b().asByteArray();
+                    out.writeByte('B');
+                    out.writeShort(binary.length);
+                    out.write(binary);
+                } else {
+                    throw new DDbException("Unsupported key attribute type in LastEvaluatedKey: " + entry.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new DDbException("Could not encode continuation token: " + e.getMessage());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @param token token returned by {@link #encode(Map)}, may be null or blank.
+     * @return ExclusiveStartKey for the next request, null to start from the beginning.
+     */
+    public static Map<String, AttributeValue> decode(String token) {
+        if (null == token || token.isBlank()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new DDbException("Unsupported continuation token version.");
+            }
+            int size = in.readUnsignedByte();
+            Map<String, AttributeValue> exclusiveStartKey = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                AttributeValue value = switch (in.readByte()) {
+                    case 'S' -> AttributeValue.fromS(in.readUTF());
+                    case 'N' -> AttributeValue.fromN(in.readUTF());
+                    case 'B' -> AttributeValue.fromB(SdkBytes.fromByteArray(in.readNBytes(in.readUnsignedShort())));
+                    default -> throw new DDbException("Malformed continuation token.");
+                };
+                exclusiveStartKey.put(name, value);
+            }
+            return exclusiveStartKey;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DDbException("Malformed continuation token.");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one. The first caller runs the call, callers arriving while it
+ * is in flight wait for and share its result or exception. Nothing is kept once the call completes, the next
+ * caller starts a new one. Every caller receives the same result instance, so results should be immutable, such as
+ * the attributes of an item rather than the entity built from them.
+ *
+ * @param <K> key type.
+ * @param <V> result type.
+ */
+public class DDbSingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call unless a call for the same key is already in flight, in which case its result is returned.
+     *
+     * @param key  identity of the call.
+     * @param call performing the actual work.
+     * @return result of the call.
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (null != existing) {
+            return await(existing);
+        }
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Detaches the in-flight call of the key so later callers start a fresh one. Used after a write, a lookup
+     * that started before the write must not be shared with readers that come after it.
+     *
+     * @param key identity of the call.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tables mapped by the repositories of the application, registered when a repository is created. Lets the
+ * execution interceptors, which only see table names, report the entities and repositories behind a request
+ * that was not sent from a repository method on the calling thread. Single table designs map several entities
+ * to one table, all of them are kept.
+ */
+public final class DDbTableRegistry {
+    private static final Map<String, Entry> TABLES = new ConcurrentHashMap<>();
+
+    private DDbTableRegistry() {
+    }
+
+    /**
+     * @param tableName  name of the DynamoDB table.
+     * @param repository class of the repository mapping the table.
+     * @param entity     entity class mapped to the table.
+     */
+    public static void register(String tableName, Class<?> repository, Class<?> entity) {
+        Entry entry = new Entry(tableName, Set.of(repository.getSimpleName()), Set.of(entity.getSimpleName()));
+        TABLES.merge(tableName, entry, Entry::merge);
+    }
+
+    /**
+     * @return the repositories and entities of the table, empty if no repository maps it.
+     */
+    public static Optional<Entry> get(String tableName) {
+        return Optional.ofNullable(TABLES.get(tableName));
+    }
+
+    /**
+     * @param tableName    name of the DynamoDB table.
+     * @param repositories simple names of the repository classes, sorted.
+     * @param entities     simple names of the entity classes, sorted.
+     */
+    public record Entry(String tableName, Set<String> repositories, Set<String> entities) {
+
+        /**
+         * @return the repositories mapping the table, comma separated.
+         */
+        public String repository() {
+            return String.join(",", repositories);
+        }
+
+        /**
+         * @return the entities mapped to the table, comma separated.
+         */
+        public String entity() {
+            return String.join(",", entities);
+        }
+
+        private Entry merge(Entry other) {
+            Set<String> mergedRepositories = new TreeSet<>(repositories);
+            mergedRepositories.addAll(other.repositories);
+            Set<String> mergedEntities = new TreeSet<>(entities);
+            mergedEntities.addAll(other.entities);
+            return new Entry(tableName, Collections.unmodifiableSet(mergedRepositories),
+                    Collections.unmodifiableSet(mergedEntities));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DDbIndexTest {
+
+    @Test
+    void of_globalAndLocalIndex_expectOnlyTheLocalOneReadableConsistently() {
+        //when
+        Map<String, DDbIndex> indices = DDbIndex.of(TableSchema.fromBean(Order.class).tableMetadata());
+
+        //then
+        assertThat(indices).containsOnlyKeys("status-index", "created-index");
+        assertThat(indices.get("status-index"))
+                .isEqualTo(new DDbIndex("status-index", "status", "created", true));
+        assertThat(indices.get("created-index"))
+                .isEqualTo(new DDbIndex("created-index", "id", "created", false));
+    }
+
+    @Test
+    void of_globalIndexWithoutSortKey_expectNoSortKey() {
+        //when
+        DDbIndex index = DDbIndex.of(TableSchema.fromBean(Customer.class).tableMetadata()).get("email-index");
+
+        //then
+        assertThat(index.global()).isTrue();
+        assertThat(index.hasSortKey()).isFalse();
+    }
+
+    @Data
+    @DynamoDbBean
+    public static class Order {
+        private String id;
+        private String sort;
+        private String status;
+        private String created;
+
+        @DynamoDbPartitionKey
+        public String getId() {
+            return id;
+        }
+
+        @DynamoDbSortKey
+        public String getSort() {
+            return sort;
+        }
+
+        @DynamoDbSecondaryPartitionKey(indexNames = "status-index")
+        public String getStatus() {
+            return status;
+        }
+
+        @DynamoDbSecondarySortKey(indexNames = {"status-index", "created-index"})
+        public String getCreated() {
+            return created;
+        }
+    }
+
+    @Data
+    @DynamoDbBean
+    public static class Customer {
+        private String id;
+        private String email;
+
+        @DynamoDbPartitionKey
+        public String getId() {
+            return id;
+        }
+
+        @DynamoDbSecondaryPartitionKey(indexNames = "email-index")
+        public String getEmail() {
+            return email;
+        }
+    }
+}
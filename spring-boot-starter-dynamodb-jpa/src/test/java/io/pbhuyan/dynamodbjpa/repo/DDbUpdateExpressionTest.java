@@ -0,0 +1,55 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.model.UpdateSpec;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DDbUpdateExpressionTest {
+    private static final TableSchema<Item> SCHEMA = TableSchema.fromBean(Item.class);
+
+    @Test
+    void valueOfTheMappedType_shouldUseTheAttributeConverter() {
+        //given
+        UpdateSpec spec = new UpdateSpec().set("total", 5).set("name", "order");
+
+        //when
+        DDbUpdateExpression expression = DDbUpdateExpression.of(spec, SCHEMA);
+
+        //then
+        assertThat(expression.expression()).isEqualTo("SET #u0 = :u0, #u1 = :u1");
+        assertThat(expression.values()).containsEntry(":u0", AttributeValue.fromN("5"))
+                .containsEntry(":u1", AttributeValue.fromS("order"));
+    }
+
+    @Test
+    void valueOfAnotherType_shouldUseTheConverterOfTheValue() {
+        //given
+        UpdateSpec spec = new UpdateSpec().set("total", 5L).set("unmapped", true);
+
+        //when
+        DDbUpdateExpression expression = DDbUpdateExpression.of(spec, SCHEMA);
+
+        //then
+        assertThat(expression.values()).containsEntry(":u0", AttributeValue.fromN("5"))
+                .containsEntry(":u1", AttributeValue.fromBool(true));
+    }
+
+    @Data
+    @DynamoDbBean
+    public static class Item {
+        private String id;
+        private Integer total;
+        private String name;
+
+        @DynamoDbPartitionKey
+        public String getId() {
+            return id;
+        }
+    }
+}
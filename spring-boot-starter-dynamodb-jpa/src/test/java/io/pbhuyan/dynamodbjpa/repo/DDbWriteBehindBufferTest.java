@@ -0,0 +1,131 @@
+package io.pbhuyan.dynamodbjpa.repo;
+
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.dynamodbjpa.model.DDbWriteBehindStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DDbWriteBehindBufferTest {
+    private DDbWriteBehindBuffer<String> buffer;
+
+    @DDbWriteBehind(flushInterval = "1h", flushSize = 1_000)
+    private static class Annotated {
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.close();
+    }
+
+    @Test
+    void flushFailingOnce_expectEntitiesWrittenByTheNextFlush() {
+        //given
+        AtomicInteger calls = new AtomicInteger();
+        List<String> written = new ArrayList<>();
+        buffer = buffer(2, entities -> {
+            if (calls.getAndIncrement() == 0) {
+                throw SdkClientException.create("connection reset");
+            }
+            written.addAll(entities);
+            return new DDbBatchWriteResult<>(entities.size(), List.of());
+        });
+        buffer.put("a");
+        buffer.put("b");
+        //when
+        buffer.flush();
+        DDbWriteBehindStats afterFailure = buffer.stats();
+        buffer.flush();
+        //then
+        assertThat(afterFailure.queueDepth()).isEqualTo(2);
+        assertThat(written).containsExactly("a", "b");
+        assertThat(buffer.stats().queueDepth()).isZero();
+        assertThat(buffer.stats().failedItems()).isZero();
+    }
+
+    @Test
+    void flushFailingBeyondMaxRetries_expectEntitiesDropped() {
+        //given
+        buffer = buffer(2, entities -> {
+            throw SdkClientException.create("connection reset");
+        });
+        buffer.put("a");
+        //when
+        buffer.flush();
+        buffer.flush();
+        buffer.flush();
+        //then
+        assertThat(buffer.stats().queueDepth()).isZero();
+        assertThat(buffer.stats().failedItems()).isEqualTo(1);
+    }
+
+    @Test
+    void itemsUnprocessedBeyondMaxRetries_expectDroppedAndCounted() {
+        //given
+        buffer = buffer(2, entities -> new DDbBatchWriteResult<>(entities.size() - 1,
+                entities.stream().filter("b"::equals).toList()));
+        buffer.put("a");
+        buffer.put("b");
+        //when
+        buffer.flush();
+        buffer.flush();
+        DDbWriteBehindStats afterRetries = buffer.stats();
+        buffer.flush();
+        //then
+        assertThat(afterRetries.queueDepth()).isEqualTo(1);
+        assertThat(buffer.stats().queueDepth()).isZero();
+        assertThat(buffer.stats().flushedItems()).isEqualTo(1);
+        assertThat(buffer.stats().failedItems()).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlush_expectNewerSaveOfTheKeyKept() {
+        //given
+        List<String> written = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        buffer = DDbWriteBehindBuffer.of(Annotated.class.getAnnotation(DDbWriteBehind.class),
+                new DDbConfigurationProperty.WriteBehind(), batch(2), "Test",
+                entity -> Key.builder().partitionValue(entity.substring(0, 1)).build(),
+                entities -> {
+                    if (calls.getAndIncrement() == 0) {
+                        buffer.put("a2");
+                        throw SdkClientException.create("connection reset");
+                    }
+                    written.addAll(entities);
+                    return new DDbBatchWriteResult<>(entities.size(), List.of());
+                }, key -> {
+                });
+        buffer.put("a1");
+        //when
+        buffer.flush();
+        buffer.flush();
+        //then
+        assertThat(written).containsExactly("a2");
+    }
+
+    private static DDbWriteBehindBuffer<String> buffer(int maxRetries,
+                                                       Function<Collection<String>, DDbBatchWriteResult<String>> writer) {
+        return DDbWriteBehindBuffer.of(Annotated.class.getAnnotation(DDbWriteBehind.class),
+                new DDbConfigurationProperty.WriteBehind(), batch(maxRetries), "Test",
+                entity -> Key.builder().partitionValue(entity).build(), writer, key -> {
+                });
+    }
+
+    private static DDbConfigurationProperty.Batch batch(int maxRetries) {
+        DDbConfigurationProperty.Batch batch = new DDbConfigurationProperty.Batch();
+        batch.setMaxRetries(maxRetries);
+        batch.setBaseDelay(Duration.ofMillis(1));
+        return batch;
+    }
+}
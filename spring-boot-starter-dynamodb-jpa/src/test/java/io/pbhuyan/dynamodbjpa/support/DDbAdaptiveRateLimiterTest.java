@@ -0,0 +1,97 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DDbAdaptiveRateLimiterTest {
+
+    @Test
+    void zeroRate_shouldNotLimit() {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(0, 0.1, 0.5, 0.1);
+
+        //when
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000; i++) {
+            limiter.acquire();
+            limiter.consume(100);
+        }
+
+        //then
+        assertThat(limiter.isLimited()).isFalse();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+    }
+
+    @Test
+    void throttled_shouldCutTheRateByTheDecreaseFactor() {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(100, 0.1, 0.5, 0.1);
+
+        //when
+        limiter.throttled();
+
+        //then
+        assertThat(limiter.rate()).isCloseTo(50, within(1.0));
+    }
+
+    @Test
+    void throttledRepeatedly_shouldNotGoBelowTheMinRatio() {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(100, 0.1, 0.5, 0.1);
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            limiter.throttled();
+        }
+
+        //then
+        assertThat(limiter.rate()).isCloseTo(10, within(1.0));
+    }
+
+    @Test
+    void afterThrottling_shouldGrowBackUpToTheConfiguredRate() throws InterruptedException {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(100, 0.1, 0.5, 10);
+        limiter.throttled();
+
+        //when
+        Thread.sleep(100);
+
+        //then
+        assertThat(limiter.rate()).isEqualTo(100);
+    }
+
+    @Test
+    void acquire_withinTheBucket_shouldNotBlock() {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(100, 0.1, 0.5, 0.1);
+
+        //when
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+        }
+
+        //then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(200));
+    }
+
+    @Test
+    void acquire_inDebt_shouldWaitUntilRefilled() {
+        //given
+        DDbAdaptiveRateLimiter limiter = new DDbAdaptiveRateLimiter(100, 0.1, 0.5, 0.1);
+        limiter.acquire();
+        limiter.consume(150);
+
+        //when
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        //then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThan(Duration.ofMillis(400));
+    }
+}
@@ -0,0 +1,84 @@
+package io.pbhuyan.dynamodbjpa.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DDbCallSiteTest {
+
+    @Test
+    void call_shouldSetTheCallSiteForTheDurationOfTheCall() {
+        //given
+        DDbCallSite callSite = new DDbCallSite(String.class, "findBy", "Customer", Integer.class);
+
+        //when
+        Optional<DDbCallSite> during = callSite.call(DDbCallSite::current);
+
+        //then
+        assertThat(during).contains(callSite);
+        assertThat(DDbCallSite.current()).isEmpty();
+    }
+
+    @Test
+    void nestedCall_shouldKeepTheOuterCallSite() {
+        //given
+        DDbCallSite outer = new DDbCallSite(String.class, "saveChanges", "Customer", Integer.class);
+        DDbCallSite inner = new DDbCallSite(String.class, "save", "Customer", Integer.class);
+
+        //when
+        Optional<DDbCallSite> during = outer.call(() -> inner.call(DDbCallSite::current));
+
+        //then
+        assertThat(during).contains(outer);
+    }
+
+    @Test
+    void stream_shouldSetTheCallSiteWhileFetchingEachElement() {
+        //given
+        DDbCallSite callSite = new DDbCallSite(String.class, "Queries.streamByStatus", "Customer", Integer.class);
+        List<Optional<DDbCallSite>> whileFetching = new ArrayList<>();
+        List<Optional<DDbCallSite>> whileConsuming = new ArrayList<>();
+        Stream<String> pages = Stream.generate(() -> {
+            whileFetching.add(DDbCallSite.current());
+            return "item";
+        }).limit(2);
+
+        //when
+        try (Stream<String> attached = callSite.stream(pages)) {
+            attached.forEach(item -> whileConsuming.add(DDbCallSite.current()));
+        }
+
+        //then
+        assertThat(whileFetching).containsExactly(Optional.of(callSite), Optional.of(callSite));
+        assertThat(whileConsuming).containsExactly(Optional.empty(), Optional.empty());
+    }
+
+    @Test
+    void entityOf_shouldOnlyNameTheEntityOfTheMappedTable() {
+        //given
+        DDbCallSite callSite = new DDbCallSite(String.class, "findBy", "Customer", Integer.class);
+
+        //then
+        assertThat(callSite.entityOf("Customer")).isEqualTo("Integer");
+        assertThat(callSite.entityOf("Order")).isNull();
+    }
+
+    @Test
+    void register_tableOfSeveralEntities_shouldKeepEveryEntity() {
+        //when
+        DDbTableRegistry.register("SingleTable", String.class, Long.class);
+        DDbTableRegistry.register("SingleTable", Integer.class, Double.class);
+
+        //then
+        DDbTableRegistry.Entry entry = DDbTableRegistry.get("SingleTable").orElseThrow();
+        assertThat(entry.entities()).isEqualTo(Set.of("Double", "Long"));
+        assertThat(entry.entity()).isEqualTo("Double,Long");
+        assertThat(entry.repository()).isEqualTo("Integer,String");
+    }
+}
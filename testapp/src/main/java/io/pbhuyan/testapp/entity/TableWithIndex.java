@@ -0,0 +1,44 @@
+package io.pbhuyan.testapp.entity;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+@Data
+@DynamoDbBean
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableWithIndex implements DDbEntity {
+    public static final String STATUS_INDEX = "status-index";
+    public static final String CREATED_INDEX = "created-index";
+
+    private String id;
+    private String sort;
+    private String status;
+    private String created;
+    @DynamoDbPartitionKey
+    public String getId(){
+        return id;
+    }
+
+    @DynamoDbSortKey
+    public String getSort(){
+        return sort;
+    }
+
+    @DynamoDbSecondaryPartitionKey(indexNames = STATUS_INDEX)
+    public String getStatus(){
+        return status;
+    }
+
+    @DynamoDbSecondarySortKey(indexNames = {STATUS_INDEX, CREATED_INDEX})
+    public String getCreated(){
+        return created;
+    }
+}
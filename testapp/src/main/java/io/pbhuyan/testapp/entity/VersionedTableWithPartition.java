@@ -0,0 +1,27 @@
+package io.pbhuyan.testapp.entity;
+
+import io.pbhuyan.dynamodbjpa.entity.DDbEntity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+@Data
+@DynamoDbBean
+@Table(name="Test")
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersionedTableWithPartition implements DDbEntity {
+    private String id;
+    private String test;
+    @Version
+    private Long version;
+    @DynamoDbPartitionKey
+    public String getId(){
+        return id;
+    }
+
+}
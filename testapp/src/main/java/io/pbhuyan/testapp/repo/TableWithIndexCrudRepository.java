@@ -0,0 +1,16 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import io.pbhuyan.testapp.entity.TableWithIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+@Repository
+public class TableWithIndexCrudRepository extends DDbCrudRepository<TableWithIndex, String, String> {
+
+    @Autowired
+    public TableWithIndexCrudRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        super(dynamoDbEnhancedClient, true);
+    }
+}
@@ -0,0 +1,16 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.repo.DDbAsyncCrudRepository;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+
+@Repository
+public class TableWithPartitionAsyncCrudRepository extends DDbAsyncCrudRepository<TableWithPartition, String, Void> {
+
+    @Autowired
+    public TableWithPartitionAsyncCrudRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        super(dynamoDbEnhancedAsyncClient, true);
+    }
+}
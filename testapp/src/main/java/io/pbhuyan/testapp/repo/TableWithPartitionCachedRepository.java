@@ -0,0 +1,18 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.repo.DDbCache;
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+@Repository
+@DDbCache(maxSize = 1_000, expireAfterWrite = "1m")
+public class TableWithPartitionCachedRepository extends DDbCrudRepository<TableWithPartition, String, Void> {
+
+    @Autowired
+    public TableWithPartitionCachedRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        super(dynamoDbEnhancedClient);
+    }
+}
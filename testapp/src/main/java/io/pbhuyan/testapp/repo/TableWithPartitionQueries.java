@@ -0,0 +1,14 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.testapp.entity.TableWithPartition;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TableWithPartitionQueries {
+    Optional<TableWithPartition> findById(String id);
+
+    List<TableWithPartition> findByIdAndTestStartingWith(String id, String prefix);
+
+    List<TableWithPartition> findByTest(String test);
+}
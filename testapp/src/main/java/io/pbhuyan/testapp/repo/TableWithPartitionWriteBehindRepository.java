@@ -0,0 +1,18 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import io.pbhuyan.dynamodbjpa.repo.DDbWriteBehind;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+@Repository
+@DDbWriteBehind(flushInterval = "200ms", flushSize = 50)
+public class TableWithPartitionWriteBehindRepository extends DDbCrudRepository<TableWithPartition, String, Void> {
+
+    @Autowired
+    public TableWithPartitionWriteBehindRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        super(dynamoDbEnhancedClient, true);
+    }
+}
@@ -0,0 +1,16 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.repo.DDbCrudRepository;
+import io.pbhuyan.testapp.entity.VersionedTableWithPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+@Repository
+public class VersionedTableWithPartitionCrudRepository extends DDbCrudRepository<VersionedTableWithPartition, String, Void> {
+
+    @Autowired
+    public VersionedTableWithPartitionCrudRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        super(dynamoDbEnhancedClient, true);
+    }
+}
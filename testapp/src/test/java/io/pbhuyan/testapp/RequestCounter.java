@@ -0,0 +1,50 @@
+package io.pbhuyan.testapp;
+
+import org.springframework.boot.test.context.TestComponent;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the requests the DynamoDB clients send by operation name. Import it into a test to assert how many
+ * requests a repository method sent. An optional delay holds every request before it is sent, so concurrent calls
+ * overlap reliably.
+ */
+@TestComponent
+public class RequestCounter implements ExecutionInterceptor {
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private volatile Duration delay = Duration.ZERO;
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        counts.computeIfAbsent(executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME),
+                operation -> new AtomicInteger()).incrementAndGet();
+        if (delay.isPositive()) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public int count(String operation) {
+        AtomicInteger count = counts.get(operation);
+        return null == count ? 0 : count.get();
+    }
+
+    public void reset() {
+        counts.clear();
+        delay = Duration.ZERO;
+    }
+
+    public void delay(Duration delay) {
+        this.delay = delay;
+    }
+}
@@ -0,0 +1,136 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbOptimisticLockException;
+import io.pbhuyan.dynamodbjpa.exception.DDbTransactionException;
+import io.pbhuyan.dynamodbjpa.repo.DDbTransaction;
+import io.pbhuyan.dynamodbjpa.repo.DDbTransactionalRead;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import io.pbhuyan.testapp.entity.VersionedTableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class DDbTransactionTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionCrudRepository tableWithPartitionRepository;
+    @Autowired
+    private VersionedTableWithPartitionCrudRepository versionedRepository;
+    @Autowired
+    private TableWithPartitionWriteBehindRepository writeBehindRepository;
+
+    private static final String ID = "transactiontest1";
+    private static final String OTHER_ID = "transactiontest2";
+    private static final String VERSIONED_ID = "transactiontest3";
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionRepository.save(new TableWithPartition(ID, "value"));
+        versionedRepository.save(new VersionedTableWithPartition(VERSIONED_ID, "0", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableWithPartitionRepository.delete(List.of(new TableWithPartition(ID, null),
+                new TableWithPartition(OTHER_ID, null)));
+        versionedRepository.findBy(VERSIONED_ID).ifPresent(versionedRepository::delete);
+    }
+
+    @Test
+    void commit_writesAllItems() {
+        //given
+        VersionedTableWithPartition versioned = versionedRepository.findBy(VERSIONED_ID).orElseThrow();
+        versioned.setTest("1");
+        //when
+        new DDbTransaction()
+                .save(tableWithPartitionRepository, new TableWithPartition(OTHER_ID, "created"))
+                .update(tableWithPartitionRepository, tableWithPartitionRepository.getKey(ID),
+                        update -> update.set("test", "updated"))
+                .save(versionedRepository, versioned)
+                .commit();
+        //then
+        assertThat(tableWithPartitionRepository.findBy(OTHER_ID)).get()
+                .extracting(TableWithPartition::getTest).isEqualTo("created");
+        assertThat(tableWithPartitionRepository.findBy(ID)).get()
+                .extracting(TableWithPartition::getTest).isEqualTo("updated");
+        assertThat(versioned.getVersion()).isEqualTo(2L);
+        assertThat(versionedRepository.findBy(VERSIONED_ID).orElseThrow().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void commit_failedConditionCheck_shouldWriteNothing() {
+        //given
+        Expression mismatch = Expression.builder()
+                .expression("#test = :test")
+                .putExpressionName("#test", "test")
+                .putExpressionValue(":test", AttributeValue.fromS("other value"))
+                .build();
+        DDbTransaction transaction = new DDbTransaction()
+                .save(tableWithPartitionRepository, new TableWithPartition(OTHER_ID, "created"))
+                .conditionCheck(tableWithPartitionRepository, tableWithPartitionRepository.getKey(ID), mismatch);
+        //then
+        assertThatExceptionOfType(DDbTransactionException.class)
+                .isThrownBy(transaction::commit)
+                .satisfies(e -> assertThat(e.getCancellationReasons())
+                        .containsExactly("None", "ConditionalCheckFailed"));
+        assertThat(tableWithPartitionRepository.findBy(OTHER_ID)).isEmpty();
+    }
+
+    @Test
+    void commit_cancelled_shouldKeepBufferedWriteOfTheItem() {
+        //given
+        Expression mismatch = Expression.builder()
+                .expression("#test = :test")
+                .putExpressionName("#test", "test")
+                .putExpressionValue(":test", AttributeValue.fromS("other value"))
+                .build();
+        writeBehindRepository.save(new TableWithPartition(OTHER_ID, "buffered"));
+        DDbTransaction transaction = new DDbTransaction()
+                .save(writeBehindRepository, new TableWithPartition(OTHER_ID, "created"))
+                .conditionCheck(tableWithPartitionRepository, tableWithPartitionRepository.getKey(ID), mismatch);
+        //then
+        assertThatExceptionOfType(DDbTransactionException.class).isThrownBy(transaction::commit);
+        assertThat(tableWithPartitionRepository.findBy(OTHER_ID)).get()
+                .extracting(TableWithPartition::getTest).isEqualTo("buffered");
+    }
+
+    @Test
+    void commit_staleVersion_shouldThrowOptimisticLockException() {
+        //given
+        VersionedTableWithPartition stale = versionedRepository.findBy(VERSIONED_ID).orElseThrow();
+        versionedRepository.save(versionedRepository.findBy(VERSIONED_ID).orElseThrow());
+        DDbTransaction transaction = new DDbTransaction()
+                .save(tableWithPartitionRepository, new TableWithPartition(OTHER_ID, "created"))
+                .save(versionedRepository, stale);
+        //then
+        assertThatExceptionOfType(DDbOptimisticLockException.class).isThrownBy(transaction::commit);
+        assertThat(stale.getVersion()).isEqualTo(1L);
+        assertThat(tableWithPartitionRepository.findBy(OTHER_ID)).isEmpty();
+    }
+
+    @Test
+    void transactionalRead_readsItemsOfSeveralEntityTypes() {
+        //given
+        DDbTransactionalRead read = new DDbTransactionalRead();
+        DDbTransactionalRead.Handle<TableWithPartition> item =
+                read.add(tableWithPartitionRepository, tableWithPartitionRepository.getKey(ID));
+        DDbTransactionalRead.Handle<TableWithPartition> missing =
+                read.add(tableWithPartitionRepository, tableWithPartitionRepository.getKey(OTHER_ID));
+        DDbTransactionalRead.Handle<VersionedTableWithPartition> versioned =
+                read.add(versionedRepository, versionedRepository.getKey(VERSIONED_ID));
+        //when
+        read.execute();
+        //then
+        assertThat(item.get()).get().extracting(TableWithPartition::getTest).isEqualTo("value");
+        assertThat(missing.get()).isEmpty();
+        assertThat(versioned.get()).get().extracting(VersionedTableWithPartition::getVersion).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,161 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.Slice;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedGlobalSecondaryIndex;
+import software.amazon.awssdk.enhanced.dynamodb.model.EnhancedLocalSecondaryIndex;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.Projection;
+import software.amazon.awssdk.services.dynamodb.model.ProjectionType;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class TableWithIndexRepositoryTest extends TestApplicationTests {
+    private static final String TABLE_NAME = TableWithIndex.class.getSimpleName();
+    private static final Projection ALL = Projection.builder().projectionType(ProjectionType.ALL).build();
+
+    @Autowired
+    private TableWithIndexCrudRepository tableWithIndexRepository;
+    @Autowired
+    private DynamoDbEnhancedClient dynamoDbEnhancedClient;
+    @Autowired
+    private DynamoDbClient dynamoDbClient;
+
+    private static final List<TableWithIndex> INDEXED_ENTITIES = List.of(
+            new TableWithIndex("indextest1", "a", "OPEN", "2024-01-01"),
+            new TableWithIndex("indextest1", "b", "CLOSED", "2024-01-02"),
+            new TableWithIndex("indextest1", "c", "OPEN", "2024-01-03"),
+            new TableWithIndex("indextest2", "a", "OPEN", "2024-01-04")
+    );
+
+    @BeforeEach
+    void setUp() {
+        createTableIfMissing();
+        tableWithIndexRepository.saveAll(INDEXED_ENTITIES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableWithIndexRepository.delete(INDEXED_ENTITIES);
+    }
+
+    @Test
+    void findAllByIndex_globalIndex_expectItemsOfAllPartitions() {
+        //when
+        List<TableWithIndex> open = awaitIndexed(() -> tableWithIndexRepository
+                .findAllByIndex(TableWithIndex.STATUS_INDEX, "OPEN"), 3);
+
+        //then
+        assertThat(open).containsExactly(INDEXED_ENTITIES.get(0), INDEXED_ENTITIES.get(2), INDEXED_ENTITIES.get(3));
+    }
+
+    @Test
+    void findAllByIndex_globalIndexWithSortKeyCondition_expectMatchingItems() {
+        //when
+        List<TableWithIndex> open = awaitIndexed(() -> tableWithIndexRepository
+                .findAllByIndex(TableWithIndex.STATUS_INDEX, "OPEN", SortKeyCondition.greaterThan("2024-01-01")), 2);
+
+        //then
+        assertThat(open).containsExactly(INDEXED_ENTITIES.get(2), INDEXED_ENTITIES.get(3));
+    }
+
+    @Test
+    void streamAllByIndex_globalIndex_expectItemsOfAllPartitions() {
+        //when
+        List<TableWithIndex> open = awaitIndexed(() -> tableWithIndexRepository
+                .streamAllByIndex(TableWithIndex.STATUS_INDEX, "OPEN").toList(), 3);
+
+        //then
+        assertThat(open).containsExactly(INDEXED_ENTITIES.get(0), INDEXED_ENTITIES.get(2), INDEXED_ENTITIES.get(3));
+    }
+
+    @Test
+    void findSliceByIndex_globalIndex_expectPagesWithContinuationToken() {
+        //given
+        awaitIndexed(() -> tableWithIndexRepository.findAllByIndex(TableWithIndex.STATUS_INDEX, "OPEN"), 3);
+
+        //when
+        Slice<TableWithIndex> first = tableWithIndexRepository
+                .findSliceByIndex(TableWithIndex.STATUS_INDEX, "OPEN", 2, null);
+        Slice<TableWithIndex> second = tableWithIndexRepository
+                .findSliceByIndex(TableWithIndex.STATUS_INDEX, "OPEN", 2, first.nextToken());
+
+        //then
+        assertThat(first.items()).containsExactly(INDEXED_ENTITIES.get(0), INDEXED_ENTITIES.get(2));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.items()).containsExactly(INDEXED_ENTITIES.get(3));
+    }
+
+    @Test
+    void findAllByIndex_localIndexOfConsistentRepository_expectItemsJustWritten() {
+        //when
+        List<TableWithIndex> created = tableWithIndexRepository.findAllByIndex(TableWithIndex.CREATED_INDEX,
+                "indextest1", SortKeyCondition.greaterThan("2024-01-01"));
+
+        //then
+        assertThat(created).containsExactly(INDEXED_ENTITIES.get(1), INDEXED_ENTITIES.get(2));
+    }
+
+    @Test
+    void findAllByIndex_localIndexWithoutSortKeyCondition_expectTheWholePartition() {
+        //when
+        List<TableWithIndex> created = tableWithIndexRepository.findAllByIndex(TableWithIndex.CREATED_INDEX,
+                "indextest2");
+
+        //then
+        assertThat(created).containsExactly(INDEXED_ENTITIES.get(3));
+    }
+
+    @Test
+    void findAllByIndex_undeclaredIndex_shouldThrowException() {
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithIndexRepository.findAllByIndex("title-index", "OPEN"));
+    }
+
+    /**
+     * Global indices are updated asynchronously, even a repository reading consistently may briefly miss what
+     * it just wrote.
+     */
+    private static List<TableWithIndex> awaitIndexed(Supplier<List<TableWithIndex>> query, int expected) {
+        List<TableWithIndex> result = query.get();
+        for (int attempt = 0; result.size() < expected && attempt < 50; attempt++) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            result = query.get();
+        }
+        return result;
+    }
+
+    private void createTableIfMissing() {
+        try {
+            dynamoDbClient.describeTable(r -> r.tableName(TABLE_NAME));
+        } catch (ResourceNotFoundException e) {
+            // A local index can only be declared when the table is created
+            dynamoDbEnhancedClient.table(TABLE_NAME, TableSchema.fromBean(TableWithIndex.class)).createTable(r -> r
+                    .globalSecondaryIndices(EnhancedGlobalSecondaryIndex.builder()
+                            .indexName(TableWithIndex.STATUS_INDEX)
+                            .projection(ALL)
+                            .build())
+                    .localSecondaryIndices(EnhancedLocalSecondaryIndex.create(TableWithIndex.CREATED_INDEX, ALL)));
+            dynamoDbClient.waiter().waitUntilTableExists(r -> r.tableName(TABLE_NAME));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.config.DDbConfigurationProperty;
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class TableWithPartitionAsyncRepositoryTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionAsyncCrudRepository tableWithPartitionAsyncRepository;
+    @Autowired
+    private DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient;
+
+    private static final List<TableWithPartition> TABLE_WITH_PARTITIONS = List.of(
+            new TableWithPartition("asynctest1", "some value goes here"),
+            new TableWithPartition("asynctest2", "some value goes here")
+    );
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionAsyncRepository.saveAll(TABLE_WITH_PARTITIONS).join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableWithPartitionAsyncRepository.delete(TABLE_WITH_PARTITIONS).join();
+    }
+
+    @Test
+    void findByMatchingPartitionKey() {
+        //when
+        Optional<TableWithPartition> result = tableWithPartitionAsyncRepository.findBy("asynctest1").join();
+        //then
+        assertThat(result).contains(TABLE_WITH_PARTITIONS.get(0));
+    }
+
+    @Test
+    void findAllByPartitionKey() {
+        //given
+        List<TableWithPartition> result = new ArrayList<>();
+        //when
+        tableWithPartitionAsyncRepository.findAllBy("asynctest2").subscribe(result::add).join();
+        //then
+        assertThat(result).containsExactly(TABLE_WITH_PARTITIONS.get(1));
+    }
+
+    @Test
+    void deleteByMissingPartitionKey_shouldFail() {
+        assertThatExceptionOfType(CompletionException.class)
+                .isThrownBy(() -> tableWithPartitionAsyncRepository.delete("dfgdfgdfg").join())
+                .withCauseInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void saveAllAndDelete_severalChunksWithDuplicateKeys_shouldWriteEachKeyOnce() {
+        //given
+        DDbConfigurationProperty configuration = new DDbConfigurationProperty();
+        configuration.getDynamodb().getBatch().setConcurrency(2);
+        TableWithPartitionAsyncCrudRepository repository =
+                new TableWithPartitionAsyncCrudRepository(dynamoDbEnhancedAsyncClient);
+        repository.setDDbConfigurationProperty(configuration);
+        List<TableWithPartition> entities = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            entities.add(new TableWithPartition("asyncbatchtest" + i, "first value"));
+        }
+        for (int i = 0; i < 60; i++) {
+            entities.add(new TableWithPartition("asyncbatchtest" + i, "last value"));
+        }
+        //when
+        DDbBatchWriteResult<TableWithPartition> saved = repository.saveAll(entities).join();
+        Optional<TableWithPartition> found = repository.findBy("asyncbatchtest42").join();
+        DDbBatchWriteResult<TableWithPartition> deleted = repository.delete(entities).join();
+        //then
+        assertThat(saved.processedCount()).isEqualTo(60);
+        assertThat(saved.unprocessedItems()).isEmpty();
+        assertThat(found).map(TableWithPartition::getTest).contains("last value");
+        assertThat(deleted.processedCount()).isEqualTo(60);
+        assertThat(repository.findBy("asyncbatchtest42").join()).isEmpty();
+    }
+
+    @Test
+    void findAllWithScanPolicyFail_shouldFailThePublisher() {
+        //given
+        DDbConfigurationProperty configuration = new DDbConfigurationProperty();
+        configuration.getDynamodb().getScan().setPolicy(DDbConfigurationProperty.ScanPolicy.FAIL);
+        TableWithPartitionAsyncCrudRepository repository =
+                new TableWithPartitionAsyncCrudRepository(dynamoDbEnhancedAsyncClient);
+        repository.setDDbConfigurationProperty(configuration);
+        //when
+        CompletableFuture<Void> subscription = repository.findAll().subscribe(item -> {
+        });
+        //then
+        assertThatExceptionOfType(CompletionException.class)
+                .isThrownBy(subscription::join)
+                .withCauseInstanceOf(DDbRepoException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.testapp.RequestCounter;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(RequestCounter.class)
+@TestPropertySource(properties = "aws.dynamodb.read.batch-window=200ms")
+class TableWithPartitionBatchedReadTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionCrudRepository tableWithPartitionRepository;
+    @Autowired
+    private RequestCounter requestCounter;
+
+    private static final List<TableWithPartition> BATCHED = List.of(
+            new TableWithPartition("batchtest1", "some value goes here"),
+            new TableWithPartition("batchtest2", "some value goes here"),
+            new TableWithPartition("batchtest3", "some value goes here")
+    );
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionRepository.saveAll(BATCHED);
+        requestCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableWithPartitionRepository.delete(BATCHED);
+    }
+
+    @Test
+    void findBy_concurrentLookupsOfDifferentKeysShareOneBatchGetItem() throws Exception {
+        //given
+        List<String> ids = List.of("batchtest1", "batchtest2", "batchtest3", "missingid");
+        List<Future<Optional<TableWithPartition>>> lookups = new ArrayList<>();
+        //when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String id : ids) {
+                lookups.add(executor.submit(() -> tableWithPartitionRepository.findBy(id)));
+            }
+        }
+        //then
+        assertThat(lookups.get(0).get()).contains(BATCHED.get(0));
+        assertThat(lookups.get(1).get()).contains(BATCHED.get(1));
+        assertThat(lookups.get(2).get()).contains(BATCHED.get(2));
+        assertThat(lookups.get(3).get()).isEmpty();
+        assertThat(requestCounter.count("BatchGetItem")).isEqualTo(1);
+        assertThat(requestCounter.count("GetItem")).isZero();
+    }
+
+    @Test
+    void accessPaths_expectLookupsServedByBatchGetItem() {
+        //when
+        List<DDbAccessPath> accessPaths = tableWithPartitionRepository.accessPaths();
+        //then
+        assertThat(accessPaths).contains(
+                new DDbAccessPath("findBy(key)", "BatchGetItem, consistent"),
+                new DDbAccessPath("existsBy", "GetItem of the key, consistent"));
+    }
+}
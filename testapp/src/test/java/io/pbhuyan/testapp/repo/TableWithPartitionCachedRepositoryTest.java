@@ -0,0 +1,91 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.model.DDbCacheStats;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableWithPartitionCachedRepositoryTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionCachedRepository tableWithPartitionCachedRepository;
+    @Autowired
+    private TableWithPartitionCrudRepository tableWithPartitionCrudRepository;
+
+    private static final TableWithPartition CACHED = new TableWithPartition("cachetest1", "some value goes here");
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionCachedRepository.save(CACHED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableWithPartitionCachedRepository.delete(CACHED);
+    }
+
+    @Test
+    void findBy_secondLookupIsServedFromCache() {
+        //given
+        long hitsBefore = tableWithPartitionCachedRepository.cacheStats().orElseThrow().hitCount();
+        //when
+        tableWithPartitionCachedRepository.findBy(CACHED.getId());
+        Optional<TableWithPartition> result = tableWithPartitionCachedRepository.findBy(CACHED.getId());
+        //then
+        DDbCacheStats stats = tableWithPartitionCachedRepository.cacheStats().orElseThrow();
+        assertThat(result).contains(CACHED);
+        assertThat(stats.hitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void findBy_cachedLookup_returnsAnEntityNotModifiedByOtherCallers() {
+        //given
+        TableWithPartition first = tableWithPartitionCachedRepository.findBy(CACHED.getId()).orElseThrow();
+        first.setTest("changed but not saved");
+        //when
+        TableWithPartition second = tableWithPartitionCachedRepository.findBy(CACHED.getId()).orElseThrow();
+        //then
+        assertThat(second).isNotSameAs(first).isEqualTo(CACHED);
+    }
+
+    @Test
+    void save_invalidatesCachedEntry() {
+        //given
+        tableWithPartitionCachedRepository.findBy(CACHED.getId());
+        TableWithPartition updated = new TableWithPartition(CACHED.getId(), "updated value");
+        //when
+        tableWithPartitionCachedRepository.save(updated);
+        //then
+        assertThat(tableWithPartitionCachedRepository.findBy(CACHED.getId())).contains(updated);
+    }
+
+    @Test
+    void delete_invalidatesCachedEntry() {
+        //given
+        tableWithPartitionCachedRepository.findBy(CACHED.getId());
+        //when
+        tableWithPartitionCachedRepository.delete(CACHED.getId());
+        //then
+        assertThat(tableWithPartitionCachedRepository.existsBy(CACHED.getId())).isFalse();
+    }
+
+    @Test
+    void saveChanges_afterCachedLookupOfTheModifiedInstance_writesTheChange() {
+        //given
+        TableWithPartition loaded = tableWithPartitionCachedRepository.findBy(CACHED.getId()).orElseThrow();
+        loaded.setTest("changed value");
+        tableWithPartitionCachedRepository.findBy(CACHED.getId());
+        //when
+        boolean written = tableWithPartitionCachedRepository.saveChanges(loaded);
+        //then
+        assertThat(written).isTrue();
+        assertThat(tableWithPartitionCrudRepository.findBy(CACHED.getId()).orElseThrow().getTest())
+                .isEqualTo("changed value");
+    }
+}
@@ -0,0 +1,68 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.testapp.RequestCounter;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(RequestCounter.class)
+@TestPropertySource(properties = "aws.dynamodb.read.coalesce=true")
+class TableWithPartitionCoalescedReadTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionCrudRepository tableWithPartitionRepository;
+    @Autowired
+    private RequestCounter requestCounter;
+
+    private static final TableWithPartition COALESCED = new TableWithPartition("coalescetest1", "some value goes here");
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionRepository.save(COALESCED);
+        requestCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestCounter.reset();
+        tableWithPartitionRepository.delete(COALESCED);
+    }
+
+    @Test
+    void findBy_concurrentLookupsOfSameKeyShareOneGetItem() throws Exception {
+        //given
+        List<Future<Optional<TableWithPartition>>> lookups = new ArrayList<>();
+        requestCounter.delay(Duration.ofMillis(500));
+        //when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                lookups.add(executor.submit(() -> tableWithPartitionRepository.findBy(COALESCED.getId())));
+            }
+        }
+        //then
+        Set<TableWithPartition> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<Optional<TableWithPartition>> lookup : lookups) {
+            assertThat(lookup.get()).contains(COALESCED);
+            instances.add(lookup.get().orElseThrow());
+        }
+        assertThat(instances).hasSize(lookups.size());
+        assertThat(requestCounter.count("GetItem")).isEqualTo(1);
+    }
+}
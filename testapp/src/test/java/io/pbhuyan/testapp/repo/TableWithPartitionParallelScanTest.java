@@ -0,0 +1,76 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.testapp.RequestCounter;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(RequestCounter.class)
+@TestPropertySource(properties = {
+        "aws.dynamodb.scan.parallelism=4",
+        "aws.dynamodb.scan.read-capacity-budget=100"
+})
+class TableWithPartitionParallelScanTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionCrudRepository tableWithPartitionRepository;
+    @Autowired
+    private RequestCounter requestCounter;
+
+    private static final List<TableWithPartition> TABLE_WITH_PARTITIONS = IntStream.range(0, 60)
+            .mapToObj(i -> new TableWithPartition("parallelscantest" + i, "some value goes here"))
+            .toList();
+
+    @BeforeEach
+    void setUp() {
+        tableWithPartitionRepository.saveAll(TABLE_WITH_PARTITIONS);
+        requestCounter.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestCounter.reset();
+        tableWithPartitionRepository.delete(TABLE_WITH_PARTITIONS);
+    }
+
+    @Test
+    void findAll_mergesTheEntitiesOfAllSegments() {
+        //when
+        List<TableWithPartition> all = tableWithPartitionRepository.findAll();
+        //then
+        assertThat(all).containsAll(TABLE_WITH_PARTITIONS).doesNotHaveDuplicates();
+        assertThat(requestCounter.count("Scan")).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void deleteAll_deletesTheEntitiesOfAllSegments() {
+        //when
+        tableWithPartitionRepository.delete();
+        //then
+        assertThat(tableWithPartitionRepository.findAll()).isEmpty();
+        assertThat(requestCounter.count("Scan")).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void parallelScan_closedBeforeAllPagesAreConsumed_returnsTheConsumedEntities() {
+        //given
+        Optional<TableWithPartition> first;
+        //when
+        try (Stream<TableWithPartition> stream = tableWithPartitionRepository.parallelScan(4, r -> r.limit(1))) {
+            first = stream.findFirst();
+        }
+        //then
+        assertThat(first).isPresent();
+    }
+}
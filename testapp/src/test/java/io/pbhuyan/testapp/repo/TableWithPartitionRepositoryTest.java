@@ -1,14 +1,19 @@
 package io.pbhuyan.testapp.repo;
 
+import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.DDbAccessPath;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
 import io.pbhuyan.testapp.TestApplicationTests;
 import io.pbhuyan.testapp.entity.TableWithPartition;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.Expression;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -16,6 +21,8 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 class TableWithPartitionRepositoryTest extends TestApplicationTests {
     @Autowired
     private TableWithPartitionCrudRepository tableWithPartitionRepository;
+    @Autowired
+    private DynamoDbEnhancedClient dynamoDbEnhancedClient;
 
     private static List<TableWithPartition> TABLE_WITH_PARTITIONS = List.of(
             new TableWithPartition("test1","some value goes here"),
@@ -69,6 +76,15 @@ class TableWithPartitionRepositoryTest extends TestApplicationTests {
         assertThat(all).contains(TABLE_WITH_PARTITIONS.stream().filter(r->r.getId().equalsIgnoreCase(test1)).findFirst().get());
     }
 
+    @Test
+    void findAllByPartitionKeys_keepsInputOrderAndSkipsMissing() {
+        //when
+        List<TableWithPartition> all = tableWithPartitionRepository.findAllByPartitionKeys(
+                List.of("test3", "missingid", "test1"));
+        //then
+        assertThat(all).containsExactly(TABLE_WITH_PARTITIONS.get(2), TABLE_WITH_PARTITIONS.get(0));
+    }
+
     @Test
     void findByNonMatchingPartitionKey() {
         //given
@@ -115,6 +131,17 @@ class TableWithPartitionRepositoryTest extends TestApplicationTests {
         assertThat(exists).isFalse();
     }
 
+    @Test
+    void existsByAndCount_withOnlyTheEnhancedClient_expectSameResults() {
+        //given
+        TableWithPartitionCrudRepository enhancedOnly = new TableWithPartitionCrudRepository(dynamoDbEnhancedClient);
+        //then
+        assertThat(enhancedOnly.existsBy("test1")).isTrue();
+        assertThat(enhancedOnly.existsBy("test1sdfsdfsd")).isFalse();
+        assertThat(enhancedOnly.countBy("test1")).isEqualTo(1);
+        assertThat(enhancedOnly.count()).isEqualTo(tableWithPartitionRepository.count());
+    }
+
 
 
     @Test
@@ -157,6 +184,22 @@ class TableWithPartitionRepositoryTest extends TestApplicationTests {
         assertThat(tableWithPartitionRepository.findBy("somenewid3").isPresent()).isTrue();
     }
 
+    @Test
+    void saveAllAndDeleteAcrossMultipleBatches() {
+        //given
+        List<TableWithPartition> subjects = IntStream.range(0, 60)
+                .mapToObj(i -> new TableWithPartition("batchid" + i, "batch value"))
+                .toList();
+        //when
+        DDbBatchWriteResult<TableWithPartition> saved = tableWithPartitionRepository.saveAll(subjects);
+        DDbBatchWriteResult<TableWithPartition> deleted = tableWithPartitionRepository.delete(subjects);
+        //then
+        assertThat(saved.isSuccess()).isTrue();
+        assertThat(saved.processedCount()).isEqualTo(subjects.size());
+        assertThat(deleted.isSuccess()).isTrue();
+        assertThat(tableWithPartitionRepository.findBy("batchid0").isPresent()).isFalse();
+    }
+
     @Test
     void deleteAll() {
         //when
@@ -201,6 +244,54 @@ class TableWithPartitionRepositoryTest extends TestApplicationTests {
         assertThat(optional.isPresent()).isFalse();
     }
 
+    @Test
+    void update_changesOnlyNamedAttribute() {
+        //when
+        tableWithPartitionRepository.update("test1", update -> update.set("test", "updated value"));
+        //then
+        assertThat(tableWithPartitionRepository.findBy("test1"))
+                .contains(new TableWithPartition("test1", "updated value"));
+    }
+
+    @Test
+    void update_removeAttribute() {
+        //when
+        tableWithPartitionRepository.update("test2", update -> update.remove("test"));
+        //then
+        assertThat(tableWithPartitionRepository.findBy("test2"))
+                .contains(new TableWithPartition("test2", null));
+    }
+
+    @Test
+    void saveChanges_unchangedEntity_writesNothing() {
+        //given
+        TableWithPartition loaded = tableWithPartitionRepository.findBy("test3").orElseThrow();
+        //when
+        boolean written = tableWithPartitionRepository.saveChanges(loaded);
+        //then
+        assertThat(written).isFalse();
+    }
+
+    @Test
+    void saveChanges_changedEntity_writesChangedAttributes() {
+        //given
+        TableWithPartition loaded = tableWithPartitionRepository.findBy("test3").orElseThrow();
+        loaded.setTest("changed value");
+        //when
+        boolean written = tableWithPartitionRepository.saveChanges(loaded);
+        //then
+        assertThat(written).isTrue();
+        assertThat(tableWithPartitionRepository.findBy("test3"))
+                .contains(new TableWithPartition("test3", "changed value"));
+    }
+
+    @Test
+    void updateByMissingPartitionKey_shouldThrowException() {
+        //then
+        assertThatExceptionOfType(NoSuchElementException.class)
+                .isThrownBy(() -> tableWithPartitionRepository.update("dfgdfgdfg", update -> update.set("test", "x")));
+    }
+
     @Test
     void deleteByMissingPartitionKey_shouldThrowException() {
         //given
@@ -210,9 +301,91 @@ class TableWithPartitionRepositoryTest extends TestApplicationTests {
                 .isThrownBy(()->tableWithPartitionRepository.delete("dfgdfgdfg"));
     }
 
+    record TestValue(String test) {
+    }
+
+    interface IdOnly {
+        String getId();
+    }
+
+    @Test
+    void findByPartitionKeyIntoRecordProjection() {
+        //when
+        Optional<TestValue> projected = tableWithPartitionRepository.findBy("test1", TestValue.class);
+        //then
+        assertThat(projected).contains(new TestValue("some value goes here"));
+    }
+
+    @Test
+    void findAllByPartitionKeyIntoInterfaceProjection() {
+        //when
+        List<IdOnly> projected = tableWithPartitionRepository.findAllBy("test2", IdOnly.class);
+        //then
+        assertThat(projected).extracting(IdOnly::getId).containsExactly("test2");
+    }
+
+    @Test
+    void findAllByPartitionKeyWithAttributes_readsOnlyThoseAttributes() {
+        //when
+        List<TableWithPartition> projected = tableWithPartitionRepository.findAllBy("test3", List.of("id"));
+        //then
+        assertThat(projected).containsExactly(new TableWithPartition("test3", null));
+    }
+
+    @Test
+    void derivedQueries() {
+        //given
+        TableWithPartitionQueries queries = tableWithPartitionRepository.createQueries(TableWithPartitionQueries.class);
+        //then
+        assertThat(queries.findById("test1")).contains(new TableWithPartition("test1", "some value goes here"));
+        assertThat(queries.findByIdAndTestStartingWith("test2", "some")).hasSize(1);
+        assertThat(queries.findByIdAndTestStartingWith("test2", "other")).isEmpty();
+        assertThat(queries.findByTest("some value goes here"))
+                .contains(new TableWithPartition("test1", "some value goes here"));
+    }
+
+    @Test
+    void derivedQueryWithParameterOfAnotherType_shouldThrowException() {
+        //then
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithPartitionRepository.createQueries(MismatchedQueries.class))
+                .withMessageContaining("binds Integer to the attribute test of type String");
+    }
+
+    @Test
+    void accessPaths_expectDerivedQueriesAndScans() {
+        //given
+        tableWithPartitionRepository.createQueries(TableWithPartitionQueries.class);
+        //when
+        List<DDbAccessPath> accessPaths = tableWithPartitionRepository.accessPaths();
+        //then
+        assertThat(accessPaths).contains(
+                new DDbAccessPath("findBy(key)", "GetItem, consistent"),
+                new DDbAccessPath("findBy(key, projection)", "Query projecting attributes, consistent"),
+                new DDbAccessPath("findAllBy(partitionKey, attributes)", "Query projecting attributes, consistent"),
+                new DDbAccessPath("findAll", "Scan, consistent"),
+                new DDbAccessPath("saveChanges", "UpdateItem of the changes"),
+                new DDbAccessPath("delete()", "Scan of the keys, BatchWriteItem"),
+                new DDbAccessPath("TableWithPartitionQueries.findById", "GetItem, consistent"),
+                new DDbAccessPath("TableWithPartitionQueries.findByIdAndTestStartingWith", "Query, consistent"),
+                new DDbAccessPath("TableWithPartitionQueries.findByTest", "Scan, consistent"));
+        assertThat(accessPaths).extracting(DDbAccessPath::method).doesNotContain("readModifyWrite", "flush");
+    }
+
+    @Test
+    void findAllByUndeclaredIndex_shouldThrowException() {
+        //then
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithPartitionRepository.findAllByIndex("test-index", "some value goes here"));
+    }
+
 
 
     @Test
     void testDeleteAll() {
     }
-}
\ No newline at end of file
+
+    interface MismatchedQueries {
+        List<TableWithPartition> findByTest(Integer test);
+    }
+}
@@ -0,0 +1,63 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.model.DDbWriteBehindStats;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.TableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableWithPartitionWriteBehindRepositoryTest extends TestApplicationTests {
+    @Autowired
+    private TableWithPartitionWriteBehindRepository tableWithPartitionWriteBehindRepository;
+
+    private static final List<TableWithPartition> TABLE_WITH_PARTITIONS = List.of(
+            new TableWithPartition("writebehindtest1", "some value goes here"),
+            new TableWithPartition("writebehindtest2", "some value goes here")
+    );
+
+    @AfterEach
+    void tearDown() {
+        tableWithPartitionWriteBehindRepository.delete(TABLE_WITH_PARTITIONS);
+    }
+
+    @Test
+    void save_isWrittenOnFlush() {
+        //given
+        TABLE_WITH_PARTITIONS.forEach(tableWithPartitionWriteBehindRepository::save);
+        //when
+        tableWithPartitionWriteBehindRepository.flush();
+        //then
+        assertThat(tableWithPartitionWriteBehindRepository.findBy("writebehindtest1")).contains(TABLE_WITH_PARTITIONS.get(0));
+        assertThat(tableWithPartitionWriteBehindRepository.findBy("writebehindtest2")).contains(TABLE_WITH_PARTITIONS.get(1));
+    }
+
+    @Test
+    void save_sameKeyTwice_lastWriteWins() {
+        //given
+        TableWithPartition updated = new TableWithPartition("writebehindtest1", "updated value");
+        tableWithPartitionWriteBehindRepository.save(TABLE_WITH_PARTITIONS.get(0));
+        tableWithPartitionWriteBehindRepository.save(updated);
+        //when
+        DDbWriteBehindStats stats = tableWithPartitionWriteBehindRepository.writeBehindStats().orElseThrow();
+        tableWithPartitionWriteBehindRepository.flush();
+        //then
+        assertThat(stats.queueDepth()).isLessThanOrEqualTo(1);
+        assertThat(tableWithPartitionWriteBehindRepository.findBy("writebehindtest1")).contains(updated);
+    }
+
+    @Test
+    void delete_dropsBufferedSave() {
+        //given
+        tableWithPartitionWriteBehindRepository.save(TABLE_WITH_PARTITIONS.get(1));
+        //when
+        tableWithPartitionWriteBehindRepository.delete(TABLE_WITH_PARTITIONS.get(1));
+        tableWithPartitionWriteBehindRepository.flush();
+        //then
+        assertThat(tableWithPartitionWriteBehindRepository.existsBy("writebehindtest2")).isFalse();
+    }
+}
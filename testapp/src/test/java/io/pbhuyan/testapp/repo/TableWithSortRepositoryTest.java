@@ -1,6 +1,9 @@
 package io.pbhuyan.testapp.repo;
 
 import io.pbhuyan.dynamodbjpa.exception.DDbRepoException;
+import io.pbhuyan.dynamodbjpa.model.PrimaryKey;
+import io.pbhuyan.dynamodbjpa.model.Slice;
+import io.pbhuyan.dynamodbjpa.model.SortKeyCondition;
 import io.pbhuyan.testapp.TestApplicationTests;
 import io.pbhuyan.testapp.entity.TableWithSort;
 import org.junit.jupiter.api.AfterEach;
@@ -59,6 +62,119 @@ class TableWithSortRepositoryTest extends TestApplicationTests {
 
     }
 
+    @Test
+    void streamAllByPartitionKey_expectMultipleResults() {
+        //when
+        List<TableWithSort> streamed = tableWithSortRepository.streamAllBy("test2").toList();
+
+        //then
+        assertThat(streamed).containsExactly(
+                SORT_TABLE_ENTITIES.get(1),
+                SORT_TABLE_ENTITIES.get(2),
+                SORT_TABLE_ENTITIES.get(3));
+    }
+
+    @Test
+    void findSliceByPartitionKey_expectPagesWithToken() {
+        //when
+        Slice<TableWithSort> first = tableWithSortRepository.findSliceBy("test2", 2, null);
+        Slice<TableWithSort> second = tableWithSortRepository.findSliceBy("test2", 2, first.nextToken());
+
+        //then
+        assertThat(first.items()).containsExactly(SORT_TABLE_ENTITIES.get(1), SORT_TABLE_ENTITIES.get(2));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.items()).containsExactly(SORT_TABLE_ENTITIES.get(3));
+    }
+
+    @Test
+    void findAllByPartitionKeyAndSortKeyBetween_expectRange() {
+        //when
+        List<TableWithSort> allBy = tableWithSortRepository.findAllBy("test2",
+                SortKeyCondition.between("sort21", "sort22"));
+
+        //then
+        assertThat(allBy).containsExactly(
+                SORT_TABLE_ENTITIES.get(1),
+                SORT_TABLE_ENTITIES.get(2));
+    }
+
+    @Test
+    void findAllByPartitionKeyAndSortKeyBeginsWith_expectMatchingResults() {
+        //when
+        List<TableWithSort> allBy = tableWithSortRepository.findAllBy("test3",
+                SortKeyCondition.beginsWith("sort3"));
+
+        //then
+        assertThat(allBy).containsExactly(
+                SORT_TABLE_ENTITIES.get(4),
+                SORT_TABLE_ENTITIES.get(5));
+    }
+
+    @Test
+    void findAllByPartitionKeyDescendingWithLimit_expectLatest() {
+        //when
+        List<TableWithSort> allBy = tableWithSortRepository.findAllBy("test2", false, 2);
+
+        //then
+        assertThat(allBy).containsExactly(
+                SORT_TABLE_ENTITIES.get(3),
+                SORT_TABLE_ENTITIES.get(2));
+    }
+
+    @Test
+    void findAllByWithNonPositiveLimit_shouldThrowException() {
+        //then
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithSortRepository.findAllBy("test2", false, 0));
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithSortRepository.findAllBy("test2",
+                        SortKeyCondition.greaterThan("sort21"), true, -1));
+    }
+
+    @Test
+    void findSliceWithNonPositivePageSize_shouldThrowException() {
+        //then
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithSortRepository.findSlice(0, null));
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithSortRepository.findSliceBy("test2", 0, null));
+        assertThatExceptionOfType(DDbRepoException.class)
+                .isThrownBy(() -> tableWithSortRepository.findSliceBy("test2",
+                        SortKeyCondition.greaterThan("sort21"), true, -1, null));
+    }
+
+    @Test
+    void findAllByPartitionKeyAndSortKeyGreaterThan_expectMatchingResults() {
+        //when
+        List<TableWithSort> allBy = tableWithSortRepository.findAllBy("test2",
+                SortKeyCondition.greaterThan("sort21"), true, 10);
+
+        //then
+        assertThat(allBy).containsExactly(
+                SORT_TABLE_ENTITIES.get(2),
+                SORT_TABLE_ENTITIES.get(3));
+    }
+
+    @Test
+    void countByPartitionKey_expectItemCollectionSize() {
+        //when
+        long count = tableWithSortRepository.countBy("test2");
+        long countGreaterThan = tableWithSortRepository.countBy("test2", SortKeyCondition.greaterThan("sort21"));
+
+        //then
+        assertThat(count).isEqualTo(3);
+        assertThat(countGreaterThan).isEqualTo(2);
+    }
+
+    @Test
+    void count_expectAtLeastAllSavedRecords() {
+        //when
+        long count = tableWithSortRepository.count();
+
+        //then
+        assertThat(count).isGreaterThanOrEqualTo(SORT_TABLE_ENTITIES.size());
+    }
+
     @Test
     void findByPartitionKeyAndSortKey_expectSingleResults() {
         //given
@@ -78,6 +194,18 @@ class TableWithSortRepositoryTest extends TestApplicationTests {
 
     }
 
+    @Test
+    void findAllByPrimaryKeys_expectResultsInInputOrder() {
+        //when
+        List<TableWithSort> result = tableWithSortRepository.findAllByPrimaryKeys(List.of(
+                PrimaryKey.of("test3", "sort32"),
+                PrimaryKey.of("test1", "sort11"),
+                PrimaryKey.of("test1", "sortKey")));
+
+        //then
+        assertThat(result).containsExactly(SORT_TABLE_ENTITIES.get(5), SORT_TABLE_ENTITIES.get(0));
+    }
+
     @Test
     void findByPartitionKeyAndSortKey_expectNoResults() {
         //given
@@ -0,0 +1,129 @@
+package io.pbhuyan.testapp.repo;
+
+import io.pbhuyan.dynamodbjpa.exception.DDbOptimisticLockException;
+import io.pbhuyan.dynamodbjpa.model.DDbBatchWriteResult;
+import io.pbhuyan.testapp.TestApplicationTests;
+import io.pbhuyan.testapp.entity.VersionedTableWithPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class VersionedTableWithPartitionRepositoryTest extends TestApplicationTests {
+    @Autowired
+    private VersionedTableWithPartitionCrudRepository versionedRepository;
+
+    private static final String ID = "versiontest1";
+    private static final String OTHER_ID = "versiontest2";
+
+    @BeforeEach
+    void setUp() {
+        versionedRepository.save(new VersionedTableWithPartition(ID, "0", null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        versionedRepository.findBy(ID).ifPresent(versionedRepository::delete);
+        versionedRepository.findBy(OTHER_ID).ifPresent(versionedRepository::delete);
+    }
+
+    @Test
+    void save_incrementsVersion() {
+        //given
+        VersionedTableWithPartition loaded = versionedRepository.findBy(ID).orElseThrow();
+        //when
+        versionedRepository.save(loaded);
+        //then
+        assertThat(loaded.getVersion()).isEqualTo(2L);
+        assertThat(versionedRepository.findBy(ID).orElseThrow().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void save_staleEntity_shouldThrowOptimisticLockException() {
+        //given
+        VersionedTableWithPartition first = versionedRepository.findBy(ID).orElseThrow();
+        VersionedTableWithPartition second = versionedRepository.findBy(ID).orElseThrow();
+        versionedRepository.save(first);
+        //then
+        assertThatExceptionOfType(DDbOptimisticLockException.class)
+                .isThrownBy(() -> versionedRepository.save(second));
+        assertThat(second.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void delete_staleEntity_shouldThrowOptimisticLockException() {
+        //given
+        VersionedTableWithPartition stale = versionedRepository.findBy(ID).orElseThrow();
+        versionedRepository.save(versionedRepository.findBy(ID).orElseThrow());
+        //then
+        assertThatExceptionOfType(DDbOptimisticLockException.class)
+                .isThrownBy(() -> versionedRepository.delete(stale));
+    }
+
+    @Test
+    void saveAll_incrementsVersions() {
+        //given
+        VersionedTableWithPartition loaded = versionedRepository.findBy(ID).orElseThrow();
+        VersionedTableWithPartition created = new VersionedTableWithPartition(OTHER_ID, "0", null);
+        //when
+        DDbBatchWriteResult<VersionedTableWithPartition> result = versionedRepository.saveAll(List.of(loaded, created));
+        //then
+        assertThat(result.processedCount()).isEqualTo(2);
+        assertThat(loaded.getVersion()).isEqualTo(2L);
+        assertThat(created.getVersion()).isEqualTo(1L);
+        assertThat(versionedRepository.findBy(ID).orElseThrow().getVersion()).isEqualTo(2L);
+        assertThat(versionedRepository.findBy(OTHER_ID).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void saveAll_staleEntity_shouldThrowOptimisticLockException() {
+        //given
+        VersionedTableWithPartition stale = versionedRepository.findBy(ID).orElseThrow();
+        versionedRepository.save(versionedRepository.findBy(ID).orElseThrow());
+        stale.setTest("stale");
+        //then
+        assertThatExceptionOfType(DDbOptimisticLockException.class)
+                .isThrownBy(() -> versionedRepository.saveAll(List.of(stale)));
+        assertThat(versionedRepository.findBy(ID).orElseThrow().getTest()).isEqualTo("0");
+    }
+
+    @Test
+    void deleteAll_staleEntity_shouldThrowOptimisticLockException() {
+        //given
+        VersionedTableWithPartition stale = versionedRepository.findBy(ID).orElseThrow();
+        versionedRepository.save(versionedRepository.findBy(ID).orElseThrow());
+        //then
+        assertThatExceptionOfType(DDbOptimisticLockException.class)
+                .isThrownBy(() -> versionedRepository.delete(List.of(stale)));
+        assertThat(versionedRepository.findBy(ID)).isPresent();
+    }
+
+    @Test
+    void readModifyWrite_concurrentIncrementsAreNotLost() throws Exception {
+        //given
+        List<Future<VersionedTableWithPartition>> writes = new ArrayList<>();
+        //when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                writes.add(executor.submit(() -> versionedRepository.readModifyWrite(ID,
+                        entity -> entity.setTest(String.valueOf(Integer.parseInt(entity.getTest()) + 1)))));
+            }
+            for (Future<VersionedTableWithPartition> write : writes) {
+                write.get();
+            }
+        }
+        //then
+        VersionedTableWithPartition result = versionedRepository.findBy(ID).orElseThrow();
+        assertThat(result.getTest()).isEqualTo("4");
+        assertThat(result.getVersion()).isEqualTo(5L);
+    }
+}